@@ -0,0 +1,31 @@
+package checkers;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.*;
+
+/**
+ * Benchmark of the leaf evaluation, run over the whole corpus for both colors.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class EvaluationBenchmark {
+    private Bitboard[] positions;
+
+    @Setup
+    public void setUp() {
+        positions = Positions.bitboards();
+    }
+
+    @Benchmark
+    public int evaluate() {
+        int sum = 0;
+        for(Bitboard pos : positions)
+            sum += Searcher.evaluate(pos, Bitboard.BLACK) + Searcher.evaluate(pos, Bitboard.WHITE);
+        return sum;
+    }
+}
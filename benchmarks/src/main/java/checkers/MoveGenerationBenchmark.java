@@ -0,0 +1,67 @@
+package checkers;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Benchmarks of the move generator and the board helpers of Agent, each run once over the whole corpus.
+ * possibleActions is MoveGenerator.generate, which replaced Agent.possibleActions in the search.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class MoveGenerationBenchmark {
+    private Bitboard[] positions;
+    private CBStatus[] states;
+    private Location[] from;
+    private Location[] to;
+    private final int[] moves = new int[MoveGenerator.MAX_MOVES];
+
+    @Setup
+    public void setUp() {
+        positions = Positions.bitboards();
+        states = Positions.states();
+        from = new Location[positions.length];
+        to = new Location[positions.length];
+        /* the first step of the first move of each position, for findPath */
+        for(int i = 0; i < positions.length; i++) {
+            MoveGenerator.generate(positions[i], moves);
+            Step step = MoveGenerator.toAction(positions[i], moves[0]).get(0);
+            from[i] = step.from;
+            to[i] = step.to;
+        }
+    }
+
+    @Benchmark
+    public int possibleActions() {
+        int n = 0;
+        for(Bitboard pos : positions)
+            n += MoveGenerator.generate(pos, moves);
+        return n;
+    }
+
+    @Benchmark
+    public void goalTest(Blackhole bh) {
+        for(Bitboard pos : positions) {
+            bh.consume(Agent.goalTest(pos, Bitboard.BLACK));
+            bh.consume(Agent.goalTest(pos, Bitboard.WHITE));
+        }
+    }
+
+    @Benchmark
+    public void findPath(Blackhole bh) throws CloneNotSupportedException {
+        for(int i = 0; i < states.length; i++)
+            bh.consume(Agent.findPath(states[i].clone(), from[i], to[i]));
+    }
+
+    @Benchmark
+    public void cloneCBStatus(Blackhole bh) throws CloneNotSupportedException {
+        for(CBStatus state : states)
+            bh.consume(state.clone());
+    }
+}
@@ -0,0 +1,32 @@
+package checkers;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.*;
+
+/**
+ * Perft benchmark: count the leaves of the full game tree from the initial position to a fixed depth
+ * with Perft, i.e. make/unmake and no evaluation, to track the raw speed of the move generator.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class PerftBenchmark {
+    @Param({"6", "8", "10"})
+    public int depth;
+
+    private Bitboard pos;
+
+    @Setup
+    public void setUp() {
+        pos = Positions.bitboards()[0];
+    }
+
+    @Benchmark
+    public long perft() {
+        return Perft.perft(pos, depth);
+    }
+}
@@ -0,0 +1,38 @@
+package checkers;
+
+/**
+ * A fixed corpus of positions the benchmarks run over, written as by Bitboard.toNotation.
+ * They were taken from engine games at 8, 14, 20 and 26 moves, black to move in each.
+ */
+final class Positions {
+    static final String[] CORPUS = {
+        "wwwwww------bbbbbb b",     /* the initial position, CheckersGame.initCBS */
+        "wwwb----w----bwbbb b",     /* opening */
+        "-wwww--wb-b---b-bb b",
+        "--wwww---bbb---bbb b",
+        "w--b-w-ww-b-bbw--b b",     /* middle game */
+        "--wbw---bb-wb---bb b",
+        "-w-w----bw--b-w--b b",
+        "---b-w-wwb----w-wb b",     /* end game */
+        "-b-b------w-bb--bb b",
+        "w--w----wbb-b-w--- b",
+    };
+
+    private Positions() {}
+
+    /** Return every position of the corpus as a Bitboard. */
+    static Bitboard[] bitboards() {
+        Bitboard[] positions = new Bitboard[CORPUS.length];
+        for(int i = 0; i < CORPUS.length; i++)
+            positions[i] = Bitboard.parse(CORPUS[i]);
+        return positions;
+    }
+
+    /** Return every position of the corpus as a CBStatus. */
+    static CBStatus[] states() {
+        CBStatus[] states = new CBStatus[CORPUS.length];
+        for(int i = 0; i < CORPUS.length; i++)
+            states[i] = Bitboard.parse(CORPUS[i]).toCBStatus();
+        return states;
+    }
+}
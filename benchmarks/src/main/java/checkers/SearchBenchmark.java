@@ -0,0 +1,49 @@
+package checkers;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.*;
+
+/**
+ * Benchmark of a full search at each game level, on one thread and without a time budget so that
+ * every run searches the same tree. The transposition table is cleared before every search.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 3, time = 2)
+@Fork(1)
+public class SearchBenchmark {
+    @Param({"BEGINNER", "EASY", "ADVANCED", "HARD"})
+    public Agent.HardLevel level;
+
+    @Param({"0", "1", "4", "7"})
+    public int position;
+
+    private SearchEngine engine;
+    private Bitboard pos;
+    private SearchLimits limits;
+
+    @Setup
+    public void setUp() {
+        engine = new SearchEngine(new SearchConfig(1, 16));
+        pos = Positions.bitboards()[position];
+        limits = new SearchLimits(level.getCode(), 0);
+    }
+
+    @Setup(Level.Invocation)
+    public void clearTable() {
+        engine.clearTable();
+    }
+
+    @TearDown
+    public void tearDown() {
+        engine.shutdown();
+    }
+
+    @Benchmark
+    public Agent.SearchResult bestMove() {
+        return engine.search(pos, pos.side, limits);
+    }
+}
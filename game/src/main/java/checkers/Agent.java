@@ -0,0 +1,375 @@
+package checkers;
+
+import java.util.*;
+import java.awt.*;
+
+/**
+ * Agent provides a couple of static methods for a game to compute a best move 
+ * or find a legal full path between two given locations and so on.
+ */
+public class Agent {
+    private static int depthLimit = 5; /* the deepest iteration a search may start. */
+    private static long timeBudget = 100; /* milliseconds a search may take, 0 for no limit. */
+
+    /** the engine searching for the game. */
+    static final SearchEngine engine = new SearchEngine(new SearchConfig());
+
+    static {
+        /* the opening book and the endgame tables, if they were generated (see OpeningBook and Tablebase) */
+        engine.config.book = OpeningBook.openDefault();
+        engine.config.tablebase = Tablebase.openDefault();
+        if(Boolean.getBoolean("checkers.printStats"))
+            engine.addListener(new ConsoleSearchListener());
+    }
+
+    /**
+     * An enum representing the game level.
+     * code -- the deepest a search goes, before the quiescence search follows the captures left.
+     * timeBudget -- milliseconds a search may take.
+     */ 
+    public enum HardLevel{
+        BEGINNER(5, 100), EASY(7, 300), ADVANCED(11, 1000), HARD(13, 3000);
+        private int code;  
+        private long timeBudget;
+        private HardLevel(int code, long timeBudget) { this.code = code; this.timeBudget = timeBudget; }     
+        public int getCode() { return code; }  
+        public long getTimeBudget() { return timeBudget; }
+    }
+    
+    /**
+     * Set the game level, i.e. both the depth limit and the time budget of a search.
+     * @param level how hard the game is. Could be BEGINNER, EASY, ADVANCED or HARD.
+     */
+    public static void setHardLevel(HardLevel level){ 
+        depthLimit = level.getCode(); 
+        timeBudget = level.getTimeBudget();
+    }
+
+    /**
+     * Set how long a search may take. The search deepens one level at a time until
+     * the budget runs out or the depth limit of the game level is reached.
+     * @param millis the time budget in milliseconds, 0 to search to the depth limit regardless of time.
+     */
+    public static void setTimeBudget(long millis){ timeBudget = millis; }
+
+    /**
+     * Set how many threads a search uses. With more than one, the moves at the root are
+     * shared out among the threads, which search them at the same time.
+     * @param n the number of threads, at least 1. It defaults to the number of available processors.
+     */
+    public static void setThreads(int n){ engine.config.threads = Math.max(1, n); }
+
+    /**
+     * Set the size of the transposition table, dropping everything stored in it.
+     * @param megabytes the size of the table in MB.
+     */
+    public static void setHashSize(int megabytes){ engine.config.hashMegabytes = megabytes; }
+    /**
+     * Return true if the checkerboard status represents a goal for the color, false otherwise.
+     * A goal means either the opponent has no legal move or no checkers at all.
+     * @param state a matrix of CheckerStatus representing the current status of the checkerboard.
+     * @param color the color of checkers owned by the player.
+     * @return true if the checkerboard status represents a goal for the color, false otherwise.
+     */
+    public static boolean goalTest(CBStatus state, CheckerStatus color) {
+        return goalTest(new Bitboard(state, color), Bitboard.colorOf(color));
+    }
+
+    /**
+     * Return true if the position represents a goal for the color, false otherwise.
+     * @param pos the position to test.
+     * @param color the color of checkers owned by the player, either Bitboard.BLACK or Bitboard.WHITE.
+     * @return true if the opponent of color has no legal move or no checkers at all.
+     */
+    static boolean goalTest(Bitboard pos, int color) {
+        return !MoveGenerator.hasMove(pos, color ^ 1);
+    }
+
+    /**
+     * Compute and return a best move for the given player based on the given checkerboard status.
+     * The search is iterative deepening: it searches to depth 1, 2, 3... until the time budget
+     * runs out or the depth limit is reached, and returns the result of the last completed iteration.
+     * @param state a matrix of CheckerStatus representing the current status of the checkerboard.
+     * @param rep the color of checkers owned by the player.
+     * @return a best move for the given player based on the given checkerboard status, or null if the
+     * search was cancelled by interrupting its thread before the first iteration completed.
+     */ 
+    public static SearchResult bestMove(CBStatus state, CheckerStatus rep) {
+        return bestMove(new Bitboard(state, rep));
+    }
+
+    /**
+     * Compute and return a best move for the side to move of a position, like bestMove above.
+     * @param position the position.
+     * @return a best move for the side to move, or null if the search was cancelled before the first iteration completed.
+     */
+    public static SearchResult bestMove(Bitboard position) {
+        return search(position, new SearchLimits(depthLimit, timeBudget));
+    }
+
+    /**
+     * Predict the opponent's reply from what the last search found, so that the position it leads
+     * to can be searched while the opponent is thinking.
+     * @param state a matrix of CheckerStatus representing the current status of the checkerboard.
+     * @param opponent the color of checkers owned by the player to move.
+     * @return the position after the predicted reply, with the other player to move, or null if there is no prediction.
+     */
+    public static Bitboard predictReply(CBStatus state, CheckerStatus opponent) {
+        Bitboard position = new Bitboard(state, opponent);
+        int reply = engine.tableMove(position);
+        if(reply == 0) return null;
+        position.make(reply);
+        return position;
+    }
+
+    /**
+     * Search a position for its side to move like bestMove, but with no time budget until
+     * engine.ponderhit gives it one: this is the search run while the opponent is thinking.
+     * @param position the position after the opponent's predicted reply.
+     * @return a best move for the side to move, or null if the search was cancelled before the first iteration completed.
+     */
+    public static SearchResult ponder(Bitboard position) {
+        return search(position, new SearchLimits(depthLimit, 0));
+    }
+
+    /** Return how long a search may take in milliseconds, 0 for no limit. */
+    public static long getTimeBudget() { return timeBudget; }
+
+    private static SearchResult search(Bitboard position, SearchLimits limits) {
+        SearchResult result = engine.search(position, position.side, limits);
+        if(result != null && result.move != 0)
+            result.action = MoveGenerator.toAction(position, result.move);
+        return result;
+    }
+    
+    /**
+     * This class represent a collection of infomation about a search result.
+     * action -- an actoin representing a best move.
+     * value -- how much is the move evaluated.
+     * move -- the best move encoded as in Bitboard, 0 if there is none.
+     * depth -- the depth of the last completed iteration.
+     * pv -- the principal variation: the best move, then the best replies expected to it, null if unknown.
+     */     
+    public static class SearchResult{
+        public Action action;
+        public int value;
+        public int move;
+        public int depth;
+        public int[] pv;
+        public SearchResult(Action a, int v) {
+            action = a;
+            value = v;
+        }
+        public SearchResult(){}
+        
+        /* for test */
+        public String toString(){
+            StringBuilder sb = new StringBuilder("Action:\n");
+            if(action != null)
+                for(int i = 0; i < action.size(); i++) {
+                    Step s = action.get(i);
+                    if(s != null)
+                        sb.append("\t" + s.toString() + "\n");
+                }
+            sb.append("value: " + value);
+            if(pv != null) {
+                sb.append("\npv:");
+                for(int m : pv)
+                    sb.append(" " + Bitboard.moveToString(m));
+            }
+            return sb.toString();
+        }
+    }
+
+    /**
+     * Find and return the full path of a move starting at from, and take it on state.
+     * to is either the square the move ends on or, for a jump, the square its first jump lands on.
+     * If several jump sequences match, the one capturing the most pieces is taken. Capturing is
+     * mandatory, so when a jump is possible no regular move matches.
+     * @param state a matrix of CheckerStatus representing the opponent status of the checkerboard.
+     * @param from the location to start with.
+     * @param to the location the move ends on, or the immediate next location targeted.
+     * @return a full path starting at from, or null if no legal move matches.
+     */     
+    public static Action findPath(CBStatus state, Location from, Location to) {
+        CheckerStatus self = state.get(from);
+        if((self != CheckerStatus.BLACK && self != CheckerStatus.WHITE) || !state.contains(to) 
+                || state.get(to) != CheckerStatus.EMPTY) return null;
+        Bitboard pos = new Bitboard(state, self);
+        int[] moves = new int[MoveGenerator.MAX_MOVES];
+        int n = MoveGenerator.generate(pos, moves);
+
+        /* prefer a move ending on to, then a jump passing through to first */
+        int start = Bitboard.square(from);
+        int best = 0;
+        Action result = null;
+        for(int pass = 0; pass < 2 && best == 0; pass++) {
+            for(int i = 0; i < n; i++) {
+                int move = moves[i];
+                if(Bitboard.from(move) != start) continue;
+                Action path = MoveGenerator.toAction(pos, move);
+                Location end = pass == 0 ? path.get(path.size() - 1).to : path.get(0).to;
+                if(end.x != to.x || end.y != to.y) continue;
+                if(best == 0 || Long.bitCount(Bitboard.captured(move)) > Long.bitCount(Bitboard.captured(best))) {
+                    best = move;
+                    result = path;
+                }
+            }
+        }
+        if(result == null) return null;
+
+        /* build the resulting state */
+        for(int i = 0; i < result.size(); i++)
+            makeAMove(state, result.get(i));
+        return result;
+    }
+
+    /**
+     * Compute the successor state by taking an action of step on state.
+     * @param state a matrix of CheckerStatus representing the opponent status of the checkerboard.
+     * @param step a single step to be taken.
+     */         
+    static void makeAMove(CBStatus state, Step step){
+        // //System.out.println(step);
+        state.set(step.to, state.get(step.from));
+        state.set(step.from, CheckerStatus.EMPTY);
+        if(step.how == HowToMove.JUMP) 
+            state.set((step.from.x + step.to.x)/2, (step.from.y + step.to.y)/2, CheckerStatus.EMPTY);
+    }
+}
+
+/**
+ * A simple class used to represent the row index and column index of a cell in a matrix.
+ * x -- index of row.
+ * y -- index of column.
+ */ 
+class Location {
+    public int x;
+    public int y;
+    public Location(int x, int y) { this.x = x; this.y = y;}
+
+    @Override public boolean equals(Object otherObj) {
+        if(otherObj == this) return true;
+        if(otherObj == null) return false;
+        if(getClass() != otherObj.getClass()) return false;
+        Location other = (Location) otherObj;
+        return x == other.x && y == other.y;
+    }
+    
+    public String toString(){ return String.format("(%d, %d)", x, y);}
+}
+
+/**
+ * An enum type to represent the method a move can be taken from a checker to another.
+ * NONE  -- Cannot happen.
+ * MOVE  -- Move from the starting checker forward to the target empty checker.
+ * WHITE -- Jump from the starting checker over a checker ocuupied by the opponent
+ *          and land onto the target empty checker.
+ */
+enum HowToMove { NONE, MOVE, JUMP }
+
+class Step {
+    public HowToMove how;
+    public Location from;
+    public Location to; 
+    public Step(Location from, Location to, HowToMove how) {
+        this.from = from;
+        this.to = to;
+        this.how = how;
+    }
+    
+    /* for testing */
+    public String toString() {
+        return String.format(how.toString() + " from (" + from.x + ", " + from.y + ") to (" + to.x + ", " + to.y + ")");
+    }
+}
+
+/** 
+ * A matrix of checkers status representing the checkboard status.
+ */
+class CBStatus implements Cloneable{
+    private CheckerStatus[][] CB;
+
+    public CBStatus(int x, int y) {
+        CB = new CheckerStatus[x][y];
+    }
+
+    public CBStatus(int[][] array) {
+        int x = array.length;
+        int y = array[0].length;
+        CB = new CheckerStatus[x][y];
+        for(int i = 0; i < x; i++)
+            for(int j = 0; j < y; j++)
+                CB[i][j] = CheckerStatus.values()[array[i][j]];
+    }
+
+    @Override public CBStatus clone() throws CloneNotSupportedException {
+        CBStatus cb = (CBStatus)super.clone();
+        cb.CB = CB.clone();
+        for(int i = 0; i < cb.CB.length; i++)
+            cb.CB[i] = CB[i].clone();
+        return cb;
+    }
+
+    /* for test */
+    public String toString(){
+        StringBuilder sb = new StringBuilder("------------------------\n");
+        for(CheckerStatus[] row:CB) {
+            sb.append("|");
+            for(CheckerStatus cell:row){
+                if(cell == CheckerStatus.WHITE)
+                    sb.append("  O");
+                else if(cell == CheckerStatus.BLACK)
+                    sb.append("  @");
+                else 
+                    sb.append("  -");
+            }
+            sb.append("  |\n");
+        }
+        return sb.toString();
+    }
+    
+    public int rows() {return (CB!=null) ? CB.length : 0;}
+    public int columns() {return ( CB!=null && CB.length != 0 )? CB[0].length : 0;}
+    
+    public CheckerStatus get(Location loc) { return CB[loc.x][loc.y]; }
+    public CheckerStatus get(int x, int y) { return CB[x][y]; }
+    public void set(Location loc, CheckerStatus s) { CB[loc.x][loc.y] = s; }    
+    public void set(int x, int y, CheckerStatus s) { CB[x][y] = s; }    
+
+    public boolean contains(Location loc) { return loc.x >= 0 && loc.x < rows() && loc.y >= 0 && loc.y < columns(); }
+}
+
+/**
+ * An action is an array of steps. 
+ * It can be used to represent a full path in which each contiguous step has a from same as the previous step's to. 
+ * It can be also used to represent a series of non-related steps.
+ */
+class Action {
+    private ArrayList<Step> path = new ArrayList<Step>();
+    public void add(Step s){ path.add(s); }
+    public int size(){ return path.size(); }
+    public Step get(int i){ return i<path.size() && i>=0 ? path.get(i) : null;}
+    public void removeLast(){ if(path.size() > 0) path.remove(path.size()-1); }
+
+    /**
+     * Concatinate another action with this one.
+     * @param another the other action to be concatinated.
+     */ 
+    public void combine(Action another){
+        if(another == null) return;
+        for(int i = 0; i < another.size(); i++)
+            path.add(another.get(i));
+    }
+    
+    /* for test */
+    public String toString(){
+        if(path.size()==0) return "";
+        String str = "";
+        for(Step s:path)
+            str = str+s.toString();
+        return str;
+    }
+}
+
+
@@ -0,0 +1,290 @@
+package checkers;
+
+/**
+ * A compact representation of the checkerboard used by the search.
+ * Only the 18 dark squares of the 6 x 6 board can ever hold a piece, so the pieces of each color
+ * are kept as a bit mask over those squares, together with the color of the side to move.
+ * Square s lies on row s/3 and column 2*(s%3)+1 on even rows or 2*(s%3) on odd rows.
+ *
+ * A move is encoded in a single int: the square it starts from (bits 0-4), the square it lands on
+ * (bits 5-9) and the mask of the opponent's pieces it captures (bits 10-27).
+ * Since a move carries everything it changes, make and unmake need no extra storage at all.
+ *
+ * The Zobrist hash of the position is kept up to date by make and unmake, so a search can look
+ * positions up in a TranspositionTable without rehashing the board.
+ */
+public class Bitboard {
+    public static final int BLACK = 0;
+    public static final int WHITE = 1;
+    public static final int SQUARES = 18;
+    public static final int ROWS = 6;
+    public static final int COLUMNS = 6;
+    public static final long ALL_SQUARES = (1L << SQUARES) - 1;
+
+    /** diagonal directions as {row delta, column delta}. Black moves along 0 and 1, white along 2 and 3. */
+    static final int[][] DIRECTIONS = {{-1, -1}, {-1, 1}, {1, -1}, {1, 1}};
+    /** neighbouring square in each direction, -1 if off the board. */
+    static final int[][] NEIGHBOUR = new int[SQUARES][4];
+    /** square landed on by a jump in each direction, -1 if off the board. */
+    static final int[][] JUMP_TO = new int[SQUARES][4];
+    /** square jumped over by a jump in each direction, -1 if off the board. */
+    static final int[][] JUMP_OVER = new int[SQUARES][4];
+    /** squares a piece of the given color can reach by a regular move, indexed by color and square. */
+    static final long[][] MOVE_MASK = new long[2][SQUARES];
+    /** squares a piece can land on by a single jump, indexed by square. */
+    static final long[] JUMP_MASK = new long[SQUARES];
+
+    /** random keys of a piece of each color on each square, and of white to move. */
+    static final long[][] ZOBRIST = new long[2][SQUARES];
+    static final long ZOBRIST_WHITE;
+
+    static {
+        java.util.Random random = new java.util.Random(0x6c8e9cf570932bd5L);
+        for(int s = 0; s < SQUARES; s++) {
+            ZOBRIST[BLACK][s] = random.nextLong();
+            ZOBRIST[WHITE][s] = random.nextLong();
+        }
+        ZOBRIST_WHITE = random.nextLong();
+        for(int s = 0; s < SQUARES; s++) {
+            int x = row(s), y = column(s);
+            for(int d = 0; d < 4; d++) {
+                NEIGHBOUR[s][d] = square(x + DIRECTIONS[d][0], y + DIRECTIONS[d][1]);
+                JUMP_TO[s][d] = square(x + 2*DIRECTIONS[d][0], y + 2*DIRECTIONS[d][1]);
+                JUMP_OVER[s][d] = JUMP_TO[s][d] < 0 ? -1 : NEIGHBOUR[s][d];
+                if(NEIGHBOUR[s][d] >= 0)
+                    MOVE_MASK[d < 2 ? BLACK : WHITE][s] |= 1L << NEIGHBOUR[s][d];
+                if(JUMP_TO[s][d] >= 0)
+                    JUMP_MASK[s] |= 1L << JUMP_TO[s][d];
+            }
+        }
+    }
+
+    /**
+     * squares with a neighbour in each direction on even and on odd rows. The neighbour of a square lies
+     * at an index offset that only depends on the direction and the parity of its row (-3 and -4 for
+     * direction 0, -2 and -3 for 1, +3 and +2 for 2, +4 and +3 for 3), so step moves a whole set of
+     * squares with two shifts.
+     */
+    private static final long STEP_FROM_EVEN_0 = stepFrom(0, 0), STEP_FROM_ODD_0 = stepFrom(0, 1);
+    private static final long STEP_FROM_EVEN_1 = stepFrom(1, 0), STEP_FROM_ODD_1 = stepFrom(1, 1);
+    private static final long STEP_FROM_EVEN_2 = stepFrom(2, 0), STEP_FROM_ODD_2 = stepFrom(2, 1);
+    private static final long STEP_FROM_EVEN_3 = stepFrom(3, 0), STEP_FROM_ODD_3 = stepFrom(3, 1);
+
+    private static long stepFrom(int d, int parity) {
+        long mask = 0;
+        for(int s = 0; s < SQUARES; s++)
+            if(NEIGHBOUR[s][d] >= 0 && (row(s) & 1) == parity) mask |= 1L << s;
+        return mask;
+    }
+
+    /** pieces of each color, indexed by BLACK and WHITE. */
+    final long[] pieces = new long[2];
+    /** the color to move, either BLACK or WHITE. */
+    int side;
+    /** the Zobrist hash of the position. */
+    long hash;
+
+    public Bitboard() {}
+
+    /**
+     * Construct a bitboard from a checkerboard status.
+     * @param state a matrix of CheckerStatus representing the status of the checkerboard.
+     * @param toMove the color of the side to move, either BLACK or WHITE.
+     */
+    public Bitboard(CBStatus state, CheckerStatus toMove) {
+        load(state, toMove);
+    }
+
+    /**
+     * Reset this bitboard to the given checkerboard status.
+     * @param state a matrix of CheckerStatus representing the status of the checkerboard.
+     * @param toMove the color of the side to move, either BLACK or WHITE.
+     */
+    public void load(CBStatus state, CheckerStatus toMove) {
+        pieces[BLACK] = 0;
+        pieces[WHITE] = 0;
+        for(int s = 0; s < SQUARES; s++) {
+            CheckerStatus cell = state.get(row(s), column(s));
+            if(cell == CheckerStatus.BLACK) pieces[BLACK] |= 1L << s;
+            else if(cell == CheckerStatus.WHITE) pieces[WHITE] |= 1L << s;
+        }
+        side = colorOf(toMove);
+        hash = computeHash();
+    }
+
+    /**
+     * Compute the Zobrist hash of the position from scratch.
+     * @return the hash of the pieces on board and the side to move.
+     */
+    public long computeHash() {
+        long h = side == WHITE ? ZOBRIST_WHITE : 0;
+        for(int color = BLACK; color <= WHITE; color++)
+            for(long bits = pieces[color]; bits != 0; bits &= bits - 1)
+                h ^= ZOBRIST[color][Long.numberOfTrailingZeros(bits)];
+        return h;
+    }
+
+    /**
+     * Copy the position of another bitboard into this one.
+     * @param other the bitboard to copy from.
+     */
+    public void copyFrom(Bitboard other) {
+        pieces[BLACK] = other.pieces[BLACK];
+        pieces[WHITE] = other.pieces[WHITE];
+        side = other.side;
+        hash = other.hash;
+    }
+
+    /**
+     * Return the checkerboard status represented by this bitboard.
+     * @return a matrix of CheckerStatus representing the same position.
+     */
+    public CBStatus toCBStatus() {
+        CBStatus state = new CBStatus(ROWS, COLUMNS);
+        for(int i = 0; i < ROWS; i++)
+            for(int j = 0; j < COLUMNS; j++)
+                state.set(i, j, (i + j) % 2 == 0 ? CheckerStatus.UNAVAILABLE : CheckerStatus.EMPTY);
+        for(int s = 0; s < SQUARES; s++)
+            state.set(row(s), column(s), get(s));
+        return state;
+    }
+
+    /**
+     * Apply a move for the side to move and pass the turn to the opponent.
+     * @param move an encoded move legal in this position.
+     */
+    public void make(int move) {
+        int self = side;
+        pieces[self] = (pieces[self] & ~(1L << from(move))) | (1L << to(move));
+        pieces[self ^ 1] &= ~captured(move);
+        side = self ^ 1;
+        hash ^= hashChange(self, move);
+    }
+
+    /**
+     * Take back a move made by make, restoring every piece it captured.
+     * @param move the encoded move last made on this bitboard.
+     */
+    public void unmake(int move) {
+        int self = side ^ 1;
+        pieces[self] = (pieces[self] & ~(1L << to(move))) | (1L << from(move));
+        pieces[self ^ 1] |= captured(move);
+        side = self;
+        hash ^= hashChange(self, move);
+    }
+
+    /**
+     * Return the difference a move of the color makes to the hash, the same whether it is made or taken back.
+     */
+    private static long hashChange(int color, int move) {
+        long h = ZOBRIST[color][from(move)] ^ ZOBRIST[color][to(move)] ^ ZOBRIST_WHITE;
+        for(long bits = captured(move); bits != 0; bits &= bits - 1)
+            h ^= ZOBRIST[color ^ 1][Long.numberOfTrailingZeros(bits)];
+        return h;
+    }
+
+    public int side() { return side; }
+    public long hash() { return hash; }
+    public long pieces(int color) { return pieces[color]; }
+    public long occupied() { return pieces[BLACK] | pieces[WHITE]; }
+    public long empty() { return ~(pieces[BLACK] | pieces[WHITE]) & ALL_SQUARES; }
+
+    /**
+     * Return the status of a square.
+     * @param s index of the square.
+     * @return EMPTY, BLACK or WHITE.
+     */
+    public CheckerStatus get(int s) {
+        if((pieces[BLACK] >>> s & 1) != 0) return CheckerStatus.BLACK;
+        if((pieces[WHITE] >>> s & 1) != 0) return CheckerStatus.WHITE;
+        return CheckerStatus.EMPTY;
+    }
+
+    /**
+     * Return the squares reached by moving each square of a set one step in a direction.
+     * @param bits a set of squares.
+     * @param d the direction, an index into DIRECTIONS.
+     * @return the neighbours in direction d of the squares in bits, squares without one dropped.
+     */
+    static long step(long bits, int d) {
+        switch(d) {
+            case 0: return (bits & STEP_FROM_EVEN_0) >>> 3 | (bits & STEP_FROM_ODD_0) >>> 4;
+            case 1: return (bits & STEP_FROM_EVEN_1) >>> 2 | (bits & STEP_FROM_ODD_1) >>> 3;
+            case 2: return (bits & STEP_FROM_EVEN_2) << 3 | (bits & STEP_FROM_ODD_2) << 2;
+            default: return (bits & STEP_FROM_EVEN_3) << 4 | (bits & STEP_FROM_ODD_3) << 3;
+        }
+    }
+
+    /* move encoding */
+    public static int encode(int from, int to, long captured) { return from | to << 5 | (int)captured << 10; }
+    public static int from(int move) { return move & 0x1f; }
+    public static int to(int move) { return move >>> 5 & 0x1f; }
+    public static long captured(int move) { return move >>> 10; }
+
+    /* square indexing */
+    public static int row(int s) { return s / 3; }
+    public static int column(int s) { return 2 * (s % 3) + (s / 3 % 2 == 0 ? 1 : 0); }
+
+    /**
+     * Return the square at the given row and column, or -1 if it is off the board or a light square.
+     */
+    public static int square(int x, int y) {
+        if(x < 0 || x >= ROWS || y < 0 || y >= COLUMNS || (x + y) % 2 == 0) return -1;
+        return x * 3 + y / 2;
+    }
+
+    public static int square(Location loc) { return square(loc.x, loc.y); }
+    public static Location location(int s) { return new Location(row(s), column(s)); }
+
+    public static int colorOf(CheckerStatus status) { return status == CheckerStatus.WHITE ? WHITE : BLACK; }
+    public static CheckerStatus statusOf(int color) { return color == WHITE ? CheckerStatus.WHITE : CheckerStatus.BLACK; }
+
+    /**
+     * Parse a position written as by toNotation.
+     * @param text the 18 squares in order, each 'b' (black), 'w' (white) or '-' (empty),
+     *             then a space and 'b' or 'w' for the side to move.
+     * @return the position.
+     * @throws IllegalArgumentException if the text is not a position.
+     */
+    public static Bitboard parse(String text) {
+        text = text.trim();
+        if(text.length() != SQUARES + 2 || text.charAt(SQUARES) != ' ')
+            throw new IllegalArgumentException("not a position: " + text);
+        Bitboard pos = new Bitboard();
+        for(int s = 0; s < SQUARES; s++) {
+            char c = text.charAt(s);
+            if(c == 'b') pos.pieces[BLACK] |= 1L << s;
+            else if(c == 'w') pos.pieces[WHITE] |= 1L << s;
+            else if(c != '-') throw new IllegalArgumentException("not a position: " + text);
+        }
+        char side = text.charAt(SQUARES + 1);
+        if(side != 'b' && side != 'w') throw new IllegalArgumentException("not a position: " + text);
+        pos.side = side == 'w' ? WHITE : BLACK;
+        pos.hash = pos.computeHash();
+        return pos;
+    }
+
+    /**
+     * Return the position in one line: the 18 squares in order, each 'b', 'w' or '-', then the side to move.
+     */
+    public String toNotation() {
+        StringBuilder sb = new StringBuilder();
+        for(int s = 0; s < SQUARES; s++)
+            sb.append((pieces[BLACK] >>> s & 1) != 0 ? 'b' : (pieces[WHITE] >>> s & 1) != 0 ? 'w' : '-');
+        return sb.append(side == WHITE ? " w" : " b").toString();
+    }
+
+    /**
+     * Return a move in a short notation: row and column of where it starts and ends,
+     * separated by '-' for a regular move or 'x' for a jump, e.g. 41-32 or 23x05.
+     */
+    public static String moveToString(int move) {
+        int from = from(move), to = to(move);
+        return "" + row(from) + column(from) + (captured(move) == 0 ? "-" : "x") + row(to) + column(to);
+    }
+
+    /* for test */
+    public String toString() {
+        return toCBStatus().toString() + (side == BLACK ? "black" : "white") + " to move\n";
+    }
+}
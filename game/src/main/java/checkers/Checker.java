@@ -0,0 +1,143 @@
+package checkers;
+
+import javax.swing.*;
+import java.awt.*;
+import java.awt.event.*;
+import java.awt.image.BufferedImage;
+import java.util.*;
+	
+/**
+ * An enum type to represent the status of a checker.
+ * UNAVAILABLE -- not available to seat a chess.
+ * EMPTY -- unoccupied dark checker.
+ * BLACK -- dark checker occupied by black piece.
+ * WHITE -- dark checker occupied by white piece.
+ */
+enum CheckerStatus { UNAVAILABLE, EMPTY, BLACK,	WHITE };
+
+/**
+ * A component to represent a checker.
+ * A checker is either occupialbe or not. 
+ * Available checkers will be drawn in light background color, while unoccupiable checkers in dark background color.
+ * An available checker can be filled with a white or black chess or left empty.
+ */
+public class Checker extends JComponent{
+	/**
+	 * Construct a Checker.
+	 * @param status 
+	 */
+	public Checker(CheckerStatus status){
+		this.status = status;
+		/* the background is filled on every paint, so nothing behind the checker needs repainting */
+		setOpaque(true);
+	}
+
+	/** 
+	 * Paint the checker.
+	 * If the checker is currently selected, it will be highlighted by drawing a blue frame.
+	 * If the checker is filled with a chess, the chess will be drawn as a filled circle.
+	 * The chesses and the frame are drawn from images rendered once for the current size.
+	 * @param g the Graphics object to protect
+	 */	
+	@Override protected void paintComponent(Graphics g){
+		int width = getWidth();
+		int height = getHeight();
+	
+		/* draw the background */
+		g.setColor(status == CheckerStatus.UNAVAILABLE ? Color.WHITE : Color.GRAY);
+		g.fillRect(0, 0, width, height);
+		if(width <= 0 || height <= 0) return;
+		
+		if(width != spriteWidth || height != spriteHeight)
+			renderSprites(width, height);
+		
+		/* draw a piece of chess if occupied */
+		if(status == CheckerStatus.BLACK)
+			g.drawImage(blackSprite, 0, 0, null);
+		else if(status == CheckerStatus.WHITE)
+			g.drawImage(whiteSprite, 0, 0, null);
+		
+		/* draw a frame if selected */
+		if(highlighted) 
+			g.drawImage(highlightSprite, 0, 0, null);
+	}
+	
+	/**
+	 * Render the chesses and the highlight frame for checkers of the given size.
+	 * All the checkers share them and they are painted on the event dispatch thread only.
+	 */
+	private static void renderSprites(int width, int height) {
+		blackSprite = renderPiece(width, height, Color.BLACK);
+		whiteSprite = renderPiece(width, height, Color.WHITE);
+		highlightSprite = new BufferedImage(width, height, BufferedImage.TYPE_INT_ARGB);
+		Graphics2D g2 = highlightSprite.createGraphics();
+		g2.setColor(Color.BLUE);
+		g2.fillRect(0, 0, width, 4);
+		g2.fillRect(0, height - 4, width, 4);
+		g2.fillRect(0, 0, 4, height);
+		g2.fillRect(width - 4, 0, 4, height);
+		g2.dispose();
+		spriteWidth = width;
+		spriteHeight = height;
+	}
+	
+	private static BufferedImage renderPiece(int width, int height, Color color) {
+		BufferedImage image = new BufferedImage(width, height, BufferedImage.TYPE_INT_ARGB);
+		Graphics2D g2 = image.createGraphics();
+		g2.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_ON);	
+		g2.setColor(color);
+		g2.fillOval(0+10, 0+10, width-20, height-20);
+		g2.dispose();
+		return image;
+	}
+	
+	/**
+	 * Turn on/off the highlightness.
+	 * @param highlighted true to turn on highlightness or false to turn off.
+	 */
+	public void highlight(boolean highlighted) {
+		if(this.highlighted == highlighted) return;
+		this.highlighted = highlighted;
+		repaint();
+	}
+
+	/**
+	 * Return the status of the checker.
+	 * @return the status of the checker. It can be UNAVAILABLE, EMPTY, BLACK or WHTTE.
+	 */	
+	public CheckerStatus getStatus(){ return status; }
+		
+	/**
+	 * Set the checker empty or occupied by a chess and repaint the checker.
+	 * @param status The new status to be set to the checker. It can be EMPTY, BLACK or WHTTE.
+	 */	
+	public void changeStatus(CheckerStatus status){
+		if(status == CheckerStatus.UNAVAILABLE) return;
+		this.status = status;
+		repaint();
+	}
+
+	/**
+	 * Set the checker empty or occupied by a chess without repainting it, for a caller
+	 * repainting several checkers at once.
+	 * @param status The new status to be set to the checker. It can be EMPTY, BLACK or WHTTE.
+	 */	
+	void setStatus(CheckerStatus status){
+		if(status == CheckerStatus.UNAVAILABLE) return;
+		this.status = status;
+	}
+	
+	/** current status of the checker, can be UNAVAILABLE, EMPTY, BLACK or WHTTE. */
+	private CheckerStatus status;
+	/** highlight the checker when it's selected. */
+	private boolean highlighted = false;
+	
+	/** the images of the chesses and of the highlight frame, and the size they were rendered for */
+	private static BufferedImage blackSprite;
+	private static BufferedImage whiteSprite;
+	private static BufferedImage highlightSprite;
+	private static int spriteWidth;
+	private static int spriteHeight;
+
+
+}
@@ -0,0 +1,231 @@
+package checkers;
+
+import javax.swing.*;
+import java.awt.*;
+import java.awt.event.*;
+import javax.swing.border.*;
+import java.util.*;
+import javax.swing.Timer;
+import java.io.*;
+import java.util.concurrent.*;
+import java.util.List;
+
+/**
+ * A panel containing a grid of checkers to represent the chessboard.
+ */
+public class Checkerboard extends JPanel {
+
+    /**
+     * Construct a Checkerboard.
+     * @param CB the states of the checkers
+     */ 
+    public Checkerboard(CBStatus CB) {
+        initCheckers(CB);
+        state = copy(CB);
+        setStepDuration(stepMillis);
+        setBorder(BorderFactory.createMatteBorder(2, 2, 2, 2, Color.BLACK));
+        addMouseListener(new CheckerSelectedHandler());
+    }
+    
+    /**
+     * Set up the checkerboard before starting a new game.
+     * @param CB the states of the checkers
+     */     
+    private void initCheckers(CBStatus CB) {
+        int row = CB.rows();
+        int col = CB.columns();
+        setLayout(new GridLayout(row, col, 2, 2));  
+        checkers = new Checker[row][col];   
+        for(int i = 0; i < row; i++) {
+            for(int j = 0; j < col; j++) {  
+                checkers[i][j] = new Checker(CB.get(i,j));
+                checkers[i][j].setPreferredSize(new Dimension(60, 60));
+                add(checkers[i][j]);
+            }
+        }               
+    }
+    
+    /**
+     * Set up the checkerboard before starting a new game, dropping the move being shown if any.
+     * @param CB the states of the checkers
+     */     
+    public void resetCheckers(CBStatus CB) {
+        animation.stop();
+        pendingSteps.clear();
+        afterAnimation.clear();
+        select(null);
+        state = copy(CB);
+        int row = CB.rows();
+        int col = CB.columns();
+        for(int i = 0; i < row; i++) {
+            for(int j = 0; j < col; j++) {  
+                checkers[i][j].changeStatus(CB.get(i,j));
+            }
+        }
+    }
+    
+    /** 
+     * Return the state of the game, which already includes the moves still being shown.
+     * @return a copy of the checkerboard status.
+     */     
+    public CBStatus getCurrentState() { 
+        return copy(state);
+    }   
+    
+    /** 
+     * Show how a move is taken in the game window. The game state changes at once, so the next
+     * player may start thinking, while the steps are shown one by one, after those of the moves
+     * still being shown.
+     * @param path the path along which the move to be shown is taken.
+     */ 
+    public void showMove(Action path) {
+        select(null);
+        if(path != null) {
+            for(int i = 0; i < path.size(); i++) {
+                Agent.makeAMove(state, path.get(i));
+                pendingSteps.add(path.get(i));
+            }
+        }
+        if(stepMillis == 0) {
+            while(!pendingSteps.isEmpty())
+                make1Step(pendingSteps.poll());
+            repaintDirty();
+        } else if(!animation.isRunning() && !pendingSteps.isEmpty()) {
+            /* the first step is shown at once, the next ones on the ticks of the timer */
+            make1Step(pendingSteps.poll());
+            repaintDirty();
+            animation.start();
+        }
+    }
+
+    /**
+     * Highlight the selected checker, turning off the one selected before.
+     * @param cell the location of the checker to highlight, null to highlight none.
+     */
+    public void select(Location cell) {
+        if(selected != null) checkers[selected.x][selected.y].highlight(false);
+        selected = cell;
+        if(selected != null) checkers[selected.x][selected.y].highlight(true);
+    }
+
+    /**
+     * Set how long each step of a move is shown.
+     * @param millis the duration of a step in milliseconds, 0 to show moves at once.
+     */
+    public void setStepDuration(int millis) {
+        stepMillis = Math.max(0, millis);
+        if(stepMillis > 0) {
+            animation.setDelay(stepMillis);
+            animation.setInitialDelay(stepMillis);
+        }
+    }
+
+    /**
+     * Run a task once the moves being shown are over, or at once if there are none.
+     * Tasks still waiting when the checkerboard is reset are dropped.
+     * @param task the task to run on the event dispatch thread.
+     */
+    public void whenIdle(Runnable task) {
+        if(isMoving()) afterAnimation.add(task);
+        else task.run();
+    }
+
+    /** Show the next step on a tick of the timer, or end the animation if none is left. */
+    private void nextFrame() {
+        Step s = pendingSteps.poll();
+        if(s != null) {
+            make1Step(s);
+            repaintDirty();
+            return;
+        }
+        animation.stop();
+        while(!afterAnimation.isEmpty() && !isMoving())
+            afterAnimation.poll().run();
+    }
+
+    private void make1Step(Step s) {
+        CheckerStatus status = checkers[s.from.x][s.from.y].getStatus();
+        setStatus(s.from.x, s.from.y, CheckerStatus.EMPTY);
+        setStatus(s.to.x, s.to.y, status);
+        if(s.how == HowToMove.JUMP) {
+            int midX = (s.from.x + s.to.x)/2;
+            int midY = (s.from.y + s.to.y)/2;
+            setStatus(midX, midY, CheckerStatus.EMPTY); 
+        }
+    }
+
+    /** Change a checker without repainting it; the area to repaint grows to cover it. */
+    private void setStatus(int x, int y, CheckerStatus status) {
+        checkers[x][y].setStatus(status);
+        Rectangle bounds = checkers[x][y].getBounds();
+        if(dirty == null) dirty = bounds;
+        else dirty.add(bounds);
+    }
+
+    /** Repaint the checkers changed since the last frame, all in one request. */
+    private void repaintDirty() {
+        if(dirty != null) repaint(dirty);
+        dirty = null;
+    }
+    
+    private static CBStatus copy(CBStatus CB) {
+        try {
+            return CB.clone();
+        } catch (CloneNotSupportedException e) {
+            throw new RuntimeException(e);
+        }
+    }
+
+    /**
+     * Find the checker in which the specified point (x, y) stands.
+     * @param x the x coordinate of the point
+     * @param y the y coordinate of the point
+     * @return the row and column indexes of the checker if it's found, otherwise null.
+     */ 
+    private Location find(int x, int y) {
+        Checker selected = (Checker)getComponentAt(x, y);       
+        for(int i = 0; i < checkers.length; i++) 
+            for(int j = 0; j < checkers[i].length; j++)     
+                if (checkers[i][j] == selected) return new Location(i,j);
+        return null;
+    }   
+    
+    private class CheckerSelectedHandler extends MouseAdapter {
+        
+        public void mouseClicked(MouseEvent event) {
+            Location selected = find(event.getX(), event.getY());
+            CheckersGame.humanChooseChecker(selected, checkers[selected.x][selected.y].getStatus());            
+        }       
+    }
+    
+    /** Return true while a move is being shown. */
+    public boolean isMoving() { return animation.isRunning() || !pendingSteps.isEmpty(); }
+
+    /** an array of checkers in the checkerboard */
+    private Checker[][] checkers;       
+    /** the highlighted checker, null if none */
+    private Location selected;
+    /** the state of the game, ahead of the checkers while a move is being shown */
+    private CBStatus state;
+    /** the steps waiting to be shown, in order */
+    private final ArrayDeque<Step> pendingSteps = new ArrayDeque<Step>();
+    /** the tasks to run once the steps are shown */
+    private final ArrayDeque<Runnable> afterAnimation = new ArrayDeque<Runnable>();
+    /** the area of the checkers changed in the current frame, null if none */
+    private Rectangle dirty;
+    /** how long each step is shown, in milliseconds */
+    private int stepMillis = STEP_MILLIS;
+    /** shows the steps one per tick; shared by all moves */
+    private final Timer animation = new Timer(stepMillis > 0 ? stepMillis : DEFAULT_STEP_MILLIS, new ActionListener() {
+        public void actionPerformed(ActionEvent event) { nextFrame(); }
+    });
+
+    /** how long each step is shown by default, unless the system property checkers.stepMillis says otherwise */
+    public static final int DEFAULT_STEP_MILLIS = 600;
+    /** how long each step is shown when moves are animated: the system property checkers.stepMillis, or DEFAULT_STEP_MILLIS */
+    public static final int STEP_MILLIS = Integer.getInteger("checkers.stepMillis", DEFAULT_STEP_MILLIS);
+
+}
+
+
+
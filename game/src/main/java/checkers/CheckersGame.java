@@ -1,3 +1,5 @@
+package checkers;
+
 import javax.swing.*;
 import java.awt.*;
 import java.util.*;
@@ -15,6 +17,7 @@ public class CheckersGame {
         /* start the game window */
         EventQueue.invokeLater(new Runnable() {
             public void run() {
+                gameFrame = new GameFrame(initCBS);
                 gameFrame.setDefaultCloseOperation(JFrame.EXIT_ON_CLOSE);
                 gameFrame.pack();       
                 gameFrame.setVisible(true);
@@ -39,14 +42,31 @@ public class CheckersGame {
     } 
 
     /**
-     * Handle a checkSelected event.
+     * Start a new game: cancel the computer's search if it is thinking, reset the players and the
+     * checkerboard, and let the computer move first if it holds the BLACK chesses.
+     * @param status the checker status representing human, either BLACK or WHITE.
+     */
+    public static void newGame(CheckerStatus status) {
+        computer.cancel();
+        resetPlayer(status);
+        gameFrame.setCheckerBoard(initCBS);
+        if(currentPlayer == computer)
+            computer.move();
+    }
+
+    /**
+     * Handle a checkSelected event. It is ignored unless it is the human's turn and no move is being shown.
      * @param cell the location of the selected checker.
      */
     public static void humanChooseChecker(Location cell, CheckerStatus status) { 
+        if(currentPlayer != human || computer.isThinking() || isMoving())
+            return;
         if(status == CheckerStatus.EMPTY)
             human.goTo(cell); 
-        else if(status == human.getChess()) 
+        else if(status == human.getChess()) {
             human.startFrom(cell);
+            gameFrame.select(cell);
+        }
     }
     
     /** 
@@ -62,34 +82,67 @@ public class CheckersGame {
     public static CBStatus getCurrentState() { return gameFrame.getCurrentState(); }
 
     /** 
-     * Show how a move is taken in the game window.
+     * Take a move, show how it is taken in the game window and pass the turn on. The next player
+     * does not wait for the move to be shown: the computer may start thinking meanwhile.
      * @param path the path along which the move to be shown is taken.
      */ 
     public static void showMove(Action path) { 
         gameFrame.showMove(path); 
+        updateState();
     }   
     
     /** 
      * Update the game state and test if it reaches the end of the game.
-     * If yes, congrats to the winner.
+     * If yes, congrats to the winner once the last move is shown.
      * Otherwise, change turn to next player.
      */     
     public static void updateState() {
         CBStatus state = gameFrame.getCurrentState();
         if(Agent.goalTest(state, currentPlayer.getChess())) {
-            String msg = currentPlayer == human ? "Congratulations! You win!" : "Sorry, you lose.";
-            JOptionPane.showMessageDialog(gameFrame, msg);  
-            gameFrame.setCheckerBoard(initCBS);
-            resetPlayer(human.getChess());
+            final String msg = currentPlayer == human ? "Congratulations! You win!" : "Sorry, you lose.";
+            gameFrame.whenIdle(new Runnable() {
+                public void run() {
+                    JOptionPane.showMessageDialog(gameFrame, msg);  
+                    newGame(human.getChess());
+                }
+            });
         }
         else{
             currentPlayer = ((currentPlayer == human) ? computer : human);
             if(currentPlayer == computer)
                 computer.move();
+            else
+                computer.ponder();
         }
     }
     
     public static boolean isMoving(){return gameFrame.isMoving();}
+
+    /** 
+     * Set how long each step of a move is shown.
+     * @param millis the duration of a step in milliseconds, 0 to show moves at once.
+     */ 
+    public static void setStepDuration(int millis) {
+        gameFrame.setStepDuration(millis);
+    }
+
+    /** 
+     * Turn on or off the computer's search while the human is thinking.
+     * @param enabled true to let the computer think on the human's time.
+     */ 
+    public static void setPonder(boolean enabled) {
+        computer.setPonder(enabled);
+        if(!enabled && currentPlayer == human)
+            computer.cancel();
+    }
+
+    /** 
+     * Show a line of text about the game, such as the progress of the computer's search, in the game window.
+     * @param text the text to show.
+     */ 
+    public static void showStatus(String text) {
+        gameFrame.setStatus(text);
+    }
         
     /** players in the game */
     private static HumanPlayer human = new HumanPlayer(CheckerStatus.BLACK);
@@ -119,8 +172,8 @@ public class CheckersGame {
                                         {0, 2, 0, 2, 0, 2},
                                         {2, 0, 2, 0, 2, 0}});                                           
 
-    /** the window displaying the game state */                                                     
-    private static GameFrame gameFrame = new GameFrame(initCBS);
+    /** the window displaying the game state, created by main so that the rest of the game can run without a display */
+    private static GameFrame gameFrame;
 }
 
 
@@ -0,0 +1,18 @@
+package checkers;
+
+/**
+ * Prints the statistics of every search on the console when it ends. The game registers one when
+ * the system property checkers.printStats is true:
+ * <pre>
+ *     java -Dcheckers.printStats=true -jar game/target/russian-checkers.jar
+ * </pre>
+ */
+public class ConsoleSearchListener implements SearchListener {
+    public void searchStarted(Bitboard position, int side, SearchLimits limits) {}
+
+    public void iterationCompleted(Agent.SearchResult result, SearchStats stats) {}
+
+    public void searchFinished(Agent.SearchResult result, SearchStats stats) {
+        System.out.println(result == null ? "search cancelled: " + stats : stats);
+    }
+}
@@ -1,3 +1,5 @@
+package checkers;
+
 import javax.swing.*;
 import java.awt.*;
 import java.awt.event.*;
@@ -15,6 +17,8 @@ public class GameFrame extends JFrame {
         add(cfgPanel, BorderLayout.EAST);   
         checkerboard = new Checkerboard(CB);
         add(checkerboard, BorderLayout.CENTER);     
+        status = new JLabel(" ");
+        add(status, BorderLayout.SOUTH);
     }   
 
     public void setCheckerBoard(CBStatus CB) {
@@ -40,8 +44,41 @@ public class GameFrame extends JFrame {
 
     
     public boolean isMoving(){return checkerboard.isMoving();}
+
+    /** 
+     * Highlight the selected checker, turning off the one selected before.
+     * @param cell the location of the checker to highlight, null to highlight none.
+     */ 
+    public void select(Location cell) {
+        checkerboard.select(cell);
+    }
+
+    /** 
+     * Run a task once the moves being shown are over, or at once if there are none.
+     * @param task the task to run.
+     */ 
+    public void whenIdle(Runnable task) {
+        checkerboard.whenIdle(task);
+    }
+
+    /** 
+     * Set how long each step of a move is shown.
+     * @param millis the duration of a step in milliseconds, 0 to show moves at once.
+     */ 
+    public void setStepDuration(int millis) {
+        checkerboard.setStepDuration(millis);
+    }
+
+    /** 
+     * Show a line of text at the bottom of the window.
+     * @param text the text to show.
+     */ 
+    public void setStatus(String text) {
+        status.setText(text);
+    }
     
     private Checkerboard checkerboard;
+    private JLabel status;
     private ConfigPanel cfgPanel;
 
 }
@@ -80,24 +117,41 @@ class ConfigPanel extends JPanel{
         add(easy);
         add(medium);
         add(hard);
-        add(new JLabel());
+
+        /* a check box to let the computer think while the human is thinking */
+        final JCheckBox ponder = new JCheckBox("think on my time", true);
+        ponder.addActionListener(new ActionListener() {
+            public void actionPerformed(ActionEvent event) {
+                    CheckersGame.setPonder(ponder.isSelected());
+            }
+        });
+        add(ponder);
+
+        /* a check box to show the steps of a move one by one or all at once */
+        final JCheckBox animate = new JCheckBox("animate moves", Checkerboard.STEP_MILLIS > 0);
+        animate.addActionListener(new ActionListener() {
+            public void actionPerformed(ActionEvent event) {
+                    /* back to the configured duration, or the default one if moves were configured not to be animated */
+                    int millis = Checkerboard.STEP_MILLIS > 0 ? Checkerboard.STEP_MILLIS : Checkerboard.DEFAULT_STEP_MILLIS;
+                    CheckersGame.setStepDuration(animate.isSelected() ? millis : 0);
+            }
+        });
+        add(animate);
 
         /* construct a button used to start the game or rechoose the color of the chess for the human */
         final JButton start = new JButton("Start");
         start.setPreferredSize(new Dimension(100, 30));
         start.addActionListener(new ActionListener() {
             public void actionPerformed(ActionEvent event) {
-                    if(CheckersGame.isMoving())
-                        return;
                     CheckerStatus human = black.isSelected() ? CheckerStatus.BLACK : CheckerStatus.WHITE;
-                    CheckersGame.resetPlayer(human);
                     
                     if(beginner.isSelected()) Agent.setHardLevel(Agent.HardLevel.BEGINNER); // to be done
                     else if(easy.isSelected()) Agent.setHardLevel(Agent.HardLevel.EASY);
                     else if(medium.isSelected()) Agent.setHardLevel(Agent.HardLevel.ADVANCED);
                     else Agent.setHardLevel(Agent.HardLevel.HARD);
                     
-                    owner.setCheckerBoard(CheckersGame.initCBS);
+                    /* cancels the computer's search if it is thinking and the move being shown */
+                    CheckersGame.newGame(human);
             }
         });
         JPanel p = new JPanel();
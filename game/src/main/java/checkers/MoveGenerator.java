@@ -0,0 +1,178 @@
+package checkers;
+
+/**
+ * MoveGenerator provides static methods to generate the moves available in a Bitboard position.
+ * Moves are written as encoded ints (see Bitboard) into a buffer supplied by the caller, so a search
+ * can keep one buffer per depth and generate moves without allocating anything.
+ * A jump is generated together with the jumps following it: every maximal sequence of jumps a piece can
+ * make is one move, so a piece that can go on capturing in several directions has one move for each.
+ * Capturing is mandatory: if the side to move can jump, its regular moves are not legal and only its
+ * jumps are generated.
+ */
+public class MoveGenerator {
+    /** the maximum number of moves a position can have, i.e. the length a move buffer needs. */
+    public static final int MAX_MOVES = 64;
+
+    /**
+     * Generate all legal moves of the side to move, scanning the board row by row: its jumps if it
+     * can jump, its regular moves otherwise.
+     * @param pos the position to generate moves for.
+     * @param moves the buffer the encoded moves are written to, at least MAX_MOVES long.
+     * @return the number of moves written to the buffer.
+     */
+    public static int generate(Bitboard pos, int[] moves) {
+        int self = pos.side;
+        if(hasCapture(pos, self)) return generateCaptures(pos, moves);
+        long empty = pos.empty();
+        int n = 0;
+        /* regular moves, forward only */
+        for(long bits = pos.pieces[self]; bits != 0; bits &= bits - 1) {
+            int from = Long.numberOfTrailingZeros(bits);
+            for(long to = Bitboard.MOVE_MASK[self][from] & empty; to != 0; to &= to - 1)
+                moves[n++] = Bitboard.encode(from, Long.numberOfTrailingZeros(to), 0);
+        }
+        return n;
+    }
+
+    /**
+     * Return true if the color can jump, i.e. if a capture is mandatory for it.
+     * All pieces are stepped onto the opponent's pieces and on to the empty squares behind them at once.
+     * @param pos the position to test.
+     * @param color the color of the pieces, either Bitboard.BLACK or Bitboard.WHITE.
+     * @return true if some piece of the color can jump, false otherwise.
+     */
+    public static boolean hasCapture(Bitboard pos, int color) {
+        long own = pos.pieces[color];
+        long other = pos.pieces[color ^ 1];
+        return ((Bitboard.step(Bitboard.step(own, 0) & other, 0) | Bitboard.step(Bitboard.step(own, 1) & other, 1)
+               | Bitboard.step(Bitboard.step(own, 2) & other, 2) | Bitboard.step(Bitboard.step(own, 3) & other, 3))
+               & pos.empty()) != 0;
+    }
+
+    /**
+     * Generate the jumps of the side to move only, e.g. for a quiescence search. When the side can jump,
+     * these are all its legal moves.
+     * @param pos the position to generate captures for.
+     * @param moves the buffer the encoded moves are written to, at least MAX_MOVES long.
+     * @return the number of moves written to the buffer.
+     */
+    public static int generateCaptures(Bitboard pos, int[] moves) {
+        int self = pos.side;
+        long other = pos.pieces[self ^ 1];
+        long empty = pos.empty();
+        int n = 0;
+        for(long bits = pos.pieces[self]; bits != 0; bits &= bits - 1) {
+            int from = Long.numberOfTrailingZeros(bits);
+            n = generateJumps(from, from, 0, other, empty | 1L << from, moves, n, n);
+        }
+        return n;
+    }
+
+    /**
+     * Generate every maximal jump path of the piece on from by a depth-first walk: a path ends where
+     * the piece cannot jump again, and paths capturing the same pieces and ending on the same square
+     * are the same move, so it is written only once.
+     * @param from the square the move starts from.
+     * @param at the square the path has reached.
+     * @param captured the pieces captured so far.
+     * @param other the opponent's pieces before the move.
+     * @param empty the empty squares before the move, including the square the move starts from.
+     * @param moves the buffer the encoded moves are written to.
+     * @param n the number of moves in the buffer.
+     * @param first the index of the first move in the buffer starting from the same square.
+     * @return the number of moves in the buffer.
+     */
+    private static int generateJumps(int from, int at, long captured, long other, long empty, int[] moves, int n, int first) {
+        boolean extended = false;
+        for(int d = 0; d < 4; d++) {
+            int next = Bitboard.JUMP_TO[at][d];
+            if(next < 0) continue;
+            long over = 1L << Bitboard.JUMP_OVER[at][d];
+            if(((empty | captured) >>> next & 1) == 0 || (other & ~captured & over) == 0) continue;
+            extended = true;
+            n = generateJumps(from, next, captured | over, other, empty, moves, n, first);
+        }
+        if(!extended && captured != 0) {
+            int move = Bitboard.encode(from, at, captured);
+            for(int i = first; i < n; i++)
+                if(moves[i] == move) return n;
+            moves[n++] = move;
+        }
+        return n;
+    }
+
+    /**
+     * Return true if any piece of the color can make a regular move or a jump, false otherwise.
+     * All pieces are stepped at once, so the test takes the same few shifts whatever the position.
+     * @param pos the position to test.
+     * @param color the color of the pieces, either Bitboard.BLACK or Bitboard.WHITE.
+     * @return true if the color has a legal move, false otherwise.
+     */
+    public static boolean hasMove(Bitboard pos, int color) {
+        long own = pos.pieces[color];
+        long forward = color == Bitboard.BLACK ? Bitboard.step(own, 0) | Bitboard.step(own, 1)
+                                               : Bitboard.step(own, 2) | Bitboard.step(own, 3);
+        return (forward & pos.empty()) != 0 || hasCapture(pos, color);
+    }
+
+    /**
+     * Return the number of regular moves the pieces of the color can make, each counted as a single step.
+     * All pieces are stepped forward at once, one direction at a time, and the empty targets counted.
+     */
+    public static int countMoves(Bitboard pos, int color) {
+        long own = pos.pieces[color];
+        long empty = pos.empty();
+        int d = color == Bitboard.BLACK ? 0 : 2;
+        return Long.bitCount(Bitboard.step(own, d) & empty) + Long.bitCount(Bitboard.step(own, d + 1) & empty);
+    }
+
+    /**
+     * Return the number of single jumps the pieces of the color can make.
+     * All pieces are stepped onto the opponent's pieces and on to the empty squares behind them at once.
+     */
+    public static int countJumps(Bitboard pos, int color) {
+        long own = pos.pieces[color];
+        long other = pos.pieces[color ^ 1];
+        long empty = pos.empty();
+        int count = 0;
+        for(int d = 0; d < 4; d++)
+            count += Long.bitCount(Bitboard.step(Bitboard.step(own, d) & other, d) & empty);
+        return count;
+    }
+
+    /**
+     * Return the step-by-step path of an encoded move, e.g. to show it on the checkerboard.
+     * @param pos the position the move is made from.
+     * @param move the encoded move.
+     * @return the path of the move.
+     */
+    public static Action toAction(Bitboard pos, int move) {
+        int from = Bitboard.from(move);
+        int to = Bitboard.to(move);
+        Action path = new Action();
+        long captured = Bitboard.captured(move);
+        if(captured == 0)
+            path.add(new Step(Bitboard.location(from), Bitboard.location(to), HowToMove.MOVE));
+        else
+            tracePath(from, to, captured, pos.empty() | 1L << from, path);
+        return path;
+    }
+
+    /**
+     * Find a sequence of jumps from at to to capturing exactly the pieces remaining, and append it to path.
+     * @return true if such a sequence exists, false otherwise.
+     */
+    private static boolean tracePath(int at, int to, long remaining, long empty, Action path) {
+        if(remaining == 0) return at == to;
+        for(int d = 0; d < 4; d++) {
+            int next = Bitboard.JUMP_TO[at][d];
+            if(next < 0) continue;
+            long over = 1L << Bitboard.JUMP_OVER[at][d];
+            if((remaining & over) == 0 || (empty >>> next & 1) == 0) continue;
+            path.add(new Step(Bitboard.location(at), Bitboard.location(next), HowToMove.JUMP));
+            if(tracePath(next, to, remaining & ~over, empty | over, path)) return true;
+            path.removeLast();
+        }
+        return false;
+    }
+}
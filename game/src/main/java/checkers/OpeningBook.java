@@ -0,0 +1,235 @@
+package checkers;
+
+import java.io.*;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.util.*;
+
+/**
+ * An opening book: the good moves of the positions near the start of the game, so that the engine
+ * can answer them at once instead of searching them anew in every game.
+ * The book is built offline by searching every move of every position up to a few plies from the
+ * initial position, and keeps the moves scoring close to the best one, each with a weight that is
+ * higher the closer it scores. A lookup picks one of them at random by weight, so that the engine
+ * does not play the same game every time.
+ *
+ * File format, big-endian: the magic number "RCOB", the format version, the number of entries and
+ * a reserved int, then the entries sorted by key: the Zobrist hash of the position (a long), the
+ * encoded move (an int), its weight and its score (a short each). A position has one entry per
+ * book move. The file is memory-mapped and searched by bisection.
+ * <pre>
+ *     java checkers.OpeningBook [-plies N] [-depth N] [-margin N] [-out FILE]
+ * </pre>
+ * -plies  how many plies from the initial position the book covers, 4 by default.
+ * -depth  the depth every move is searched to, 11 by default.
+ * -margin how much worse than the best move a book move may score, 2 by default.
+ * -out    the file the book is written to, book.bin by default.
+ */
+public class OpeningBook {
+    /** the file Agent loads the book from, unless the system property checkers.book names another. */
+    public static final String DEFAULT_FILE = "book.bin";
+
+    private static final int MAGIC = 0x52434f42;
+    /** version 2: made with mandatory captures */
+    private static final int VERSION = 2;
+    private static final int HEADER_BYTES = 16;
+    private static final int ENTRY_BYTES = 16;
+
+    private final MappedByteBuffer data;
+    private final int entries;
+
+    private OpeningBook(MappedByteBuffer data, int entries) {
+        this.data = data;
+        this.entries = entries;
+    }
+
+    /**
+     * Open a book file.
+     * @param file the file written by build.
+     * @return the book of the file.
+     * @throws IOException if the file cannot be read or is not a book.
+     */
+    public static OpeningBook open(File file) throws IOException {
+        RandomAccessFile in = new RandomAccessFile(file, "r");
+        try {
+            MappedByteBuffer data = in.getChannel().map(FileChannel.MapMode.READ_ONLY, 0, in.length());
+            data.order(ByteOrder.BIG_ENDIAN);
+            if(in.length() < HEADER_BYTES || data.getInt(0) != MAGIC || data.getInt(4) != VERSION)
+                throw new IOException(file + " is not an opening book");
+            int entries = data.getInt(8);
+            if(entries < 0 || in.length() != HEADER_BYTES + (long)entries * ENTRY_BYTES)
+                throw new IOException(file + " is truncated or corrupt");
+            return new OpeningBook(data, entries);
+        } finally {
+            /* the mapping stays valid after the file is closed */
+            in.close();
+        }
+    }
+
+    /**
+     * Open the book file Agent uses, if there is one.
+     * @return the book, or null if the file does not exist or cannot be read.
+     */
+    public static OpeningBook openDefault() {
+        File file = new File(System.getProperty("checkers.book", DEFAULT_FILE));
+        if(!file.isFile()) return null;
+        try {
+            return open(file);
+        } catch (IOException e) {
+            System.err.println("opening book not loaded: " + e.getMessage());
+            return null;
+        }
+    }
+
+    /** Return the number of entries, i.e. of book moves over all positions. */
+    public int size() { return entries; }
+
+    /**
+     * Pick a book move of a position at random, each with a chance proportional to its weight.
+     * A move that is not legal in the position, which can only happen if two positions share a hash,
+     * is never picked.
+     * @param pos the position.
+     * @param random the source of the choice.
+     * @return the result holding the move and its score for the side to move, with depth 0, or null if the book has no move for the position.
+     */
+    public Agent.SearchResult probe(Bitboard pos, Random random) {
+        int first = firstEntry(pos.hash);
+        int[] legal = new int[MoveGenerator.MAX_MOVES];
+        int n = MoveGenerator.generate(pos, legal);
+        int total = 0;
+        int last = first;
+        for(; last < entries && key(last) == pos.hash; last++)
+            if(contains(legal, n, move(last))) total += weight(last);
+        if(total == 0) return null;
+
+        int pick = random.nextInt(total);
+        for(int i = first; i < last; i++) {
+            if(!contains(legal, n, move(i))) continue;
+            pick -= weight(i);
+            if(pick < 0) {
+                Agent.SearchResult result = new Agent.SearchResult(null, score(i));
+                result.move = move(i);
+                result.depth = 0;
+                return result;
+            }
+        }
+        return null;
+    }
+
+    /** Return the index of the first entry whose key is not below key. */
+    private int firstEntry(long key) {
+        int low = 0, high = entries;
+        while(low < high) {
+            int middle = (low + high) >>> 1;
+            if(key(middle) < key) low = middle + 1;
+            else high = middle;
+        }
+        return low;
+    }
+
+    private long key(int i) { return data.getLong(HEADER_BYTES + i * ENTRY_BYTES); }
+    private int move(int i) { return data.getInt(HEADER_BYTES + i * ENTRY_BYTES + 8); }
+    private int weight(int i) { return data.getShort(HEADER_BYTES + i * ENTRY_BYTES + 12) & 0xffff; }
+    private int score(int i) { return data.getShort(HEADER_BYTES + i * ENTRY_BYTES + 14); }
+
+    private static boolean contains(int[] moves, int n, int move) {
+        for(int i = 0; i < n; i++)
+            if(moves[i] == move) return true;
+        return false;
+    }
+
+    /**
+     * Build a book by searching every move of every position up to the given number of plies from the
+     * initial position, and write it to a file. All moves are followed, not only book moves, since the
+     * opponent may play any of them.
+     * @param plies how many plies from the initial position the book covers.
+     * @param limits how deep and how long every move is searched.
+     * @param margin how much worse than the best move a book move may score.
+     * @param file the file to write.
+     * @throws IOException if the file cannot be written.
+     */
+    public static void build(int plies, SearchLimits limits, int margin, File file) throws IOException {
+        /* one engine per color, so that neither has to clear its table for every search */
+        SearchEngine[] engines = { new SearchEngine(new SearchConfig()), new SearchEngine(new SearchConfig()) };
+        java.util.List<long[]> book = new ArrayList<long[]>();
+        Set<Long> seen = new HashSet<Long>();
+        java.util.List<Bitboard> level = new ArrayList<Bitboard>();
+        level.add(new Bitboard(CheckersGame.initCBS, CheckerStatus.BLACK));
+        seen.add(level.get(0).hash);
+        int[] moves = new int[MoveGenerator.MAX_MOVES];
+        int[] scores = new int[MoveGenerator.MAX_MOVES];
+        long start = System.currentTimeMillis();
+
+        for(int ply = 0; ply < plies; ply++) {
+            java.util.List<Bitboard> next = new ArrayList<Bitboard>();
+            for(Bitboard pos : level) {
+                int n = MoveGenerator.generate(pos, moves);
+                int best = Integer.MIN_VALUE;
+                for(int i = 0; i < n; i++) {
+                    Bitboard child = new Bitboard();
+                    child.copyFrom(pos);
+                    child.make(moves[i]);
+                    if(seen.add(child.hash)) next.add(child);
+                    /* the child is searched for the opponent, so its score is negated */
+                    scores[i] = MoveGenerator.hasMove(child, child.side)
+                              ? -engines[child.side].search(child, child.side, limits).value : 1000;
+                    best = Math.max(best, scores[i]);
+                }
+                for(int i = 0; i < n; i++)
+                    if(best - scores[i] <= margin)
+                        book.add(new long[]{ pos.hash, moves[i], margin + 1 - (best - scores[i]), scores[i] });
+            }
+            System.out.println(String.format("ply %d: %d positions searched, %d book moves, %d ms",
+                    ply, level.size(), book.size(), System.currentTimeMillis() - start));
+            level = next;
+        }
+        engines[0].shutdown();
+        engines[1].shutdown();
+
+        Collections.sort(book, new Comparator<long[]>() {
+            public int compare(long[] a, long[] b) {
+                if(a[0] != b[0]) return a[0] < b[0] ? -1 : 1;
+                return a[1] < b[1] ? -1 : a[1] > b[1] ? 1 : 0;
+            }
+        });
+        DataOutputStream out = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(file)));
+        try {
+            out.writeInt(MAGIC);
+            out.writeInt(VERSION);
+            out.writeInt(book.size());
+            out.writeInt(0);
+            for(long[] entry : book) {
+                out.writeLong(entry[0]);
+                out.writeInt((int)entry[1]);
+                out.writeShort((int)entry[2]);
+                out.writeShort((int)entry[3]);
+            }
+        } finally {
+            out.close();
+        }
+    }
+
+    public static void main(String[] args) throws IOException {
+        int plies = 4;
+        int depth = Agent.HardLevel.ADVANCED.getCode();
+        int margin = 2;
+        String out = DEFAULT_FILE;
+        try {
+            for(int i = 0; i < args.length; i++) {
+                if(args[i].equals("-plies")) plies = Integer.parseInt(args[++i]);
+                else if(args[i].equals("-depth")) depth = Integer.parseInt(args[++i]);
+                else if(args[i].equals("-margin")) margin = Integer.parseInt(args[++i]);
+                else if(args[i].equals("-out")) out = args[++i];
+                else throw new IllegalArgumentException("unknown option " + args[i]);
+            }
+            if(margin < 0 || margin > 1000) throw new IllegalArgumentException("-margin must be from 0 to 1000");
+        } catch (RuntimeException e) {
+            System.err.println(e.getMessage());
+            System.err.println("usage: java checkers.OpeningBook [-plies N] [-depth N] [-margin N] [-out FILE]");
+            System.exit(1);
+        }
+        build(plies, new SearchLimits(depth, 0), margin, new File(out));
+        System.out.println("opening book of " + plies + " plies written to " + out);
+    }
+}
@@ -0,0 +1,222 @@
+package checkers;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.*;
+
+/**
+ * Perft counts the leaves of the full game tree from a position to a given depth, i.e. the number
+ * of move sequences of that length. Comparing the counts with a reference generator shows whether
+ * the move generator produces exactly the legal moves, and timing them measures the generator alone,
+ * with no search or evaluation involved.
+ * <pre>
+ *     java checkers.Perft [-depth N] [-divide] [-threads N] [-verify] [POSITION]
+ * </pre>
+ * -depth   depth to count to, 8 by default.
+ * -divide  also print the count under each root move.
+ * -threads count the subtrees of the root moves on that many threads, 1 by default.
+ * -verify  count again with a slow reference generator working on CBStatus and compare.
+ * POSITION a position as written by Bitboard.toNotation, in quotes, the initial position by default.
+ */
+public class Perft {
+    private final Bitboard pos = new Bitboard();
+    private final int[][] moves = new int[SearchEngine.MAX_PLY][MoveGenerator.MAX_MOVES];
+
+    /**
+     * Count the leaves of the game tree from a position.
+     * @param start the position to count from, left unchanged.
+     * @param depth the depth to count to.
+     * @return the number of leaves at that depth. A position without moves above it counts as no leaf.
+     */
+    public static long perft(Bitboard start, int depth) {
+        Perft p = new Perft();
+        p.pos.copyFrom(start);
+        return p.count(depth, 0);
+    }
+
+    /**
+     * Count the leaves under each root move.
+     * @param start the position to count from, left unchanged.
+     * @param depth the depth to count to, at least 1.
+     * @param threads the number of threads sharing the root moves.
+     * @return the count under each root move, in the order MoveGenerator.generate returns the moves.
+     */
+    public static long[] divide(final Bitboard start, final int depth, int threads) throws InterruptedException {
+        int[] root = new int[MoveGenerator.MAX_MOVES];
+        int n = MoveGenerator.generate(start, root);
+        ExecutorService pool = Executors.newFixedThreadPool(Math.max(1, threads));
+        List<Future<Long>> counts = new ArrayList<Future<Long>>();
+        for(int i = 0; i < n; i++) {
+            final int move = root[i];
+            counts.add(pool.submit(new Callable<Long>() {
+                public Long call() {
+                    Perft p = new Perft();
+                    p.pos.copyFrom(start);
+                    p.pos.make(move);
+                    return p.count(depth - 1, 1);
+                }
+            }));
+        }
+        pool.shutdown();
+        long[] result = new long[n];
+        try {
+            for(int i = 0; i < n; i++)
+                result[i] = counts.get(i).get();
+        } catch (ExecutionException e) {
+            throw new RuntimeException(e.getCause());
+        }
+        return result;
+    }
+
+    /**
+     * Count the leaves of the game tree from a position on several threads.
+     * @param start the position to count from, left unchanged.
+     * @param depth the depth to count to.
+     * @param threads the number of threads sharing the root moves.
+     * @return the number of leaves at that depth.
+     */
+    public static long perft(Bitboard start, int depth, int threads) throws InterruptedException {
+        if(depth <= 1 || threads <= 1) return perft(start, depth);
+        long total = 0;
+        for(long count : divide(start, depth, threads))
+            total += count;
+        return total;
+    }
+
+    private long count(int depth, int ply) {
+        if(depth == 0) return 1;
+        int[] buffer = moves[ply];
+        int n = MoveGenerator.generate(pos, buffer);
+        if(depth == 1) return n;
+        long nodes = 0;
+        for(int i = 0; i < n; i++) {
+            pos.make(buffer[i]);
+            nodes += count(depth - 1, ply + 1);
+            pos.unmake(buffer[i]);
+        }
+        return nodes;
+    }
+
+    /**
+     * Count the leaves of the game tree with a reference generator working on CBStatus: jumps are
+     * followed one step at a time on a copy of the board until the piece cannot jump again, and only
+     * if no piece can jump are regular moves tried square by square. It is slow but shares no code
+     * with MoveGenerator.
+     * @param state the position to count from, left unchanged.
+     * @param side the color to move.
+     * @param depth the depth to count to.
+     * @return the number of leaves at that depth.
+     */
+    public static long reference(CBStatus state, CheckerStatus side, int depth) {
+        if(depth == 0) return 1;
+        CheckerStatus other = side == CheckerStatus.BLACK ? CheckerStatus.WHITE : CheckerStatus.BLACK;
+        int forward = side == CheckerStatus.BLACK ? -1 : 1;
+        long nodes = 0;
+        boolean jumped = false;
+        for(int i = 0; i < state.rows(); i++) {
+            for(int j = 0; j < state.columns(); j++) {
+                if(state.get(i, j) != side) continue;
+                /* two jump sequences of a piece reaching the same board are the same move */
+                Map<String, CBStatus> jumps = new HashMap<String, CBStatus>();
+                referenceJumps(state, i, j, false, jumps);
+                for(CBStatus next : jumps.values())
+                    nodes += reference(next, other, depth - 1);
+                jumped |= !jumps.isEmpty();
+            }
+        }
+        /* capturing is mandatory */
+        if(jumped) return nodes;
+        for(int i = 0; i < state.rows(); i++) {
+            for(int j = 0; j < state.columns(); j++) {
+                if(state.get(i, j) != side) continue;
+                for(int dy = -1; dy <= 1; dy += 2) {
+                    Location to = new Location(i + forward, j + dy);
+                    if(!state.contains(to) || state.get(to) != CheckerStatus.EMPTY) continue;
+                    CBStatus next = copy(state);
+                    next.set(i, j, CheckerStatus.EMPTY);
+                    next.set(to, side);
+                    nodes += reference(next, other, depth - 1);
+                }
+            }
+        }
+        return nodes;
+    }
+
+    /**
+     * Follow every jump sequence of the piece on (x, y) and collect the boards where it cannot jump any more.
+     */
+    private static void referenceJumps(CBStatus state, int x, int y, boolean jumped, Map<String, CBStatus> boards) {
+        CheckerStatus self = state.get(x, y);
+        boolean extended = false;
+        for(int dx = -1; dx <= 1; dx += 2) {
+            for(int dy = -1; dy <= 1; dy += 2) {
+                Location to = new Location(x + 2*dx, y + 2*dy);
+                if(!state.contains(to) || state.get(to) != CheckerStatus.EMPTY) continue;
+                CheckerStatus over = state.get(x + dx, y + dy);
+                if(over == self || over == CheckerStatus.EMPTY || over == CheckerStatus.UNAVAILABLE) continue;
+                CBStatus next = copy(state);
+                next.set(x, y, CheckerStatus.EMPTY);
+                next.set(x + dx, y + dy, CheckerStatus.EMPTY);
+                next.set(to, self);
+                referenceJumps(next, to.x, to.y, true, boards);
+                extended = true;
+            }
+        }
+        if(jumped && !extended) boards.put(state.toString(), state);
+    }
+
+    private static CBStatus copy(CBStatus state) {
+        try {
+            return state.clone();
+        } catch (CloneNotSupportedException e) {
+            throw new RuntimeException(e);
+        }
+    }
+
+    public static void main(String[] args) throws Exception {
+        int depth = 8;
+        int threads = 1;
+        boolean divide = false;
+        boolean verify = false;
+        Bitboard pos = new Bitboard(CheckersGame.initCBS, CheckerStatus.BLACK);
+        try {
+            for(int i = 0; i < args.length; i++) {
+                if(args[i].equals("-depth")) depth = Integer.parseInt(args[++i]);
+                else if(args[i].equals("-threads")) threads = Integer.parseInt(args[++i]);
+                else if(args[i].equals("-divide")) divide = true;
+                else if(args[i].equals("-verify")) verify = true;
+                else pos = Bitboard.parse(args[i]);
+            }
+        } catch (RuntimeException e) {
+            System.err.println(e.getMessage() == null ? e.toString() : e.getMessage());
+            System.err.println("usage: java checkers.Perft [-depth N] [-divide] [-threads N] [-verify] [POSITION]");
+            System.exit(1);
+        }
+
+        System.out.print(pos);
+        long start = System.nanoTime();
+        long nodes = 0;
+        if(divide) {
+            int[] root = new int[MoveGenerator.MAX_MOVES];
+            MoveGenerator.generate(pos, root);
+            long[] counts = divide(pos, depth, threads);
+            for(int i = 0; i < counts.length; i++) {
+                System.out.println(Bitboard.moveToString(root[i]) + ": " + counts[i]);
+                nodes += counts[i];
+            }
+        } else {
+            nodes = perft(pos, depth, threads);
+        }
+        double seconds = (System.nanoTime() - start) / 1e9;
+        System.out.println(String.format("perft(%d) = %d in %.3f s, %.0f nodes/s", depth, nodes, seconds, nodes / Math.max(1e-9, seconds)));
+
+        if(verify) {
+            long expected = reference(pos.toCBStatus(), Bitboard.statusOf(pos.side), depth);
+            System.out.println(expected == nodes ? "verified against the reference generator"
+                                                 : "MISMATCH: the reference generator counts " + expected);
+            if(expected != nodes) System.exit(2);
+        }
+    }
+}
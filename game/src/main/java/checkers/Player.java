@@ -0,0 +1,245 @@
+package checkers;
+
+import javax.swing.*;
+import java.awt.*;
+import java.awt.event.*;
+import java.util.*;
+import java.util.concurrent.*;
+
+public abstract class Player {
+
+    /** the color of chess owned by this player */
+    private CheckerStatus chess;
+    
+    /** 
+     * construct a player and set its role by specifying the checkers owned by this player. 
+     * @param chess the chess owned by this player.
+     */
+    public Player(CheckerStatus chess) {
+        this.chess = chess;
+    }
+
+    /** 
+     * Set the player's role by specifying the checkers owned by this player. 
+     * @param chess the chess owned by this player.
+     */ 
+    public void setChess(CheckerStatus chess) {
+        this.chess = chess;
+    }
+    
+    /** 
+     * Return the status of the checkers owned by this player.
+     * @return the status of the checkers owned by this player.
+     */ 
+     public CheckerStatus getChess() {
+        return chess;
+    }
+
+    /** 
+     * Take a move. 
+     */     
+    protected abstract void move();
+}
+
+class HumanPlayer extends Player {
+    
+    /** 
+     * construct a human player and set its role by specifying the checkers owned by this player. 
+     * @param chessColor the chess owned by this player.
+     */
+    public HumanPlayer(CheckerStatus chessColor) {
+        super(chessColor);
+    }
+
+    /** 
+     * Set where to start with.
+     * @param from the location to start from.   
+     */         
+    public void startFrom(Location from) {
+        this.from = from;
+    }
+
+    /** 
+     * Set where to aim at. If there is a legal path from from to to, a move will take place.
+     * @param to the target.
+     */     
+    public void goTo(Location to) {
+        if(from != null) {
+            this.to = to;
+            move();
+        }
+    }
+    
+    /**
+     * Find the path between from and to, take a move, show the move on the checkerboard.
+     * Only legal moves are found, so a regular move is rejected when a capture is possible.
+     */
+    protected void move() {
+        CBStatus state = CheckersGame.getCurrentState();
+        Action action = Agent.findPath(state, from, to);  
+        if(action != null){
+            CheckersGame.showMove(action);
+            from = null;
+            to = null;
+        } else if(MoveGenerator.hasCapture(new Bitboard(state, getChess()), Bitboard.colorOf(getChess()))) {
+            CheckersGame.showStatus("You must capture.");
+        }
+    }
+
+    /** the chess the current move starts from */
+    private Location from;
+    private Location to;
+}
+
+class ComputerPlayer extends Player {
+    
+    /** 
+     * construct a computer player and set its role by specifying the checkers owned by this player. 
+     * @param chessColor the chess owned by this player.
+     */
+    public ComputerPlayer(CheckerStatus chessColor) {
+        super(chessColor);
+    }
+    
+    /**
+     * Start looking for the best move in the background. When it is found, the move is taken and
+     * shown on the checkerboard on the event dispatch thread, unless the search was cancelled meanwhile.
+     * The progress of the search is shown in the game window while it runs.
+     * If the human played the move predicted by ponder, the ponder search goes on as the real one.
+     */
+    protected void move() {
+        CBStatus curState = CheckersGame.getCurrentState();
+        if(search != null && search.ponder) {
+            Search pondered = search;
+            Bitboard position = new Bitboard(curState, getChess());
+            if(position.hash == pondered.position.hash && position.pieces[Bitboard.BLACK] == pondered.position.pieces[Bitboard.BLACK]
+                    && position.pieces[Bitboard.WHITE] == pondered.position.pieces[Bitboard.WHITE]) {
+                pondered.ponder = false;
+                if(pondered.isDone()) {
+                    search = null;
+                    play(pondered);
+                } else {
+                    Agent.engine.ponderhit(pondered.position, Agent.getTimeBudget());
+                    CheckersGame.showStatus("thinking...");
+                }
+                return;
+            }
+            cancel();
+        }
+        search = new Search(new Bitboard(curState, getChess()), false);
+        CheckersGame.showStatus("thinking...");
+        SEARCH_THREAD.execute(search);
+    }
+
+    /**
+     * Start searching the position after the human's predicted reply while the human is thinking,
+     * so that the reply is ready, or nearly, if the human plays that move.
+     * Does nothing if pondering is off or there is no prediction.
+     */
+    public void ponder() {
+        if(!ponderEnabled) return;
+        CheckerStatus human = getChess() == CheckerStatus.BLACK ? CheckerStatus.WHITE : CheckerStatus.BLACK;
+        Bitboard predicted = Agent.predictReply(CheckersGame.getCurrentState(), human);
+        if(predicted == null || !MoveGenerator.hasMove(predicted, predicted.side)) return;
+        search = new Search(predicted, true);
+        SEARCH_THREAD.execute(search);
+    }
+
+    /**
+     * Turn pondering on or off. It takes effect at the next human turn.
+     * @param enabled true to search while the human is thinking.
+     */
+    public void setPonder(boolean enabled) { ponderEnabled = enabled; }
+
+    /**
+     * Cancel the search in progress, if any, pondering included. Its result is dropped and no move is taken.
+     * Called on the event dispatch thread.
+     */
+    public void cancel() {
+        if(search != null) {
+            if(!search.ponder)
+                CheckersGame.showStatus(" ");
+            search.cancel(true);
+            search = null;
+        }
+    }
+
+    /** Return true if a search for the computer's move is in progress, pondering excluded. */
+    public boolean isThinking() { return search != null && !search.ponder; }
+
+    /** Take the move a finished search found. */
+    private void play(Search done) {
+        Agent.SearchResult result;
+        try {
+            result = done.get();
+        } catch (Exception e) {
+            e.printStackTrace();
+            return;
+        }
+        if(result == null) return;
+        /* before the move, which may start pondering and so a new search */
+        CheckersGame.showStatus(String.format("depth %d, %d nodes, played %s",
+                result.depth, Agent.engine.getStats().nodes, Bitboard.moveToString(result.move)));
+        CheckersGame.showMove(result.action);
+    }
+
+    /**
+     * A search on the search thread. A ponder search runs with no time budget and its result is kept
+     * until the human moves; it turns into a normal search if the human plays the predicted move.
+     * It listens to the engine while it runs and shows every completed iteration in the game window.
+     */
+    private class Search extends SwingWorker<Agent.SearchResult, String> implements SearchListener {
+        Search(Bitboard position, boolean ponder) {
+            this.position = position;
+            this.ponder = ponder;
+        }
+
+        @Override public Agent.SearchResult doInBackground() {
+            Agent.engine.addListener(this);
+            try {
+                return ponder ? Agent.ponder(position) : Agent.bestMove(position);
+            } finally {
+                Agent.engine.removeListener(this);
+            }
+        }
+
+        public void searchStarted(Bitboard position, int side, SearchLimits limits) {}
+
+        public void iterationCompleted(Agent.SearchResult result, SearchStats stats) {
+            publish(String.format("thinking... depth %d, %d nodes, best %s",
+                    result.depth, stats.nodes, Bitboard.moveToString(result.move)));
+        }
+
+        public void searchFinished(Agent.SearchResult result, SearchStats stats) {}
+
+        @Override protected void process(java.util.List<String> progress) {
+            if(search == this && !ponder)
+                CheckersGame.showStatus(progress.get(progress.size() - 1));
+        }
+
+        @Override public void done() {
+            if(search != this || isCancelled() || ponder) return;
+            search = null;
+            play(this);
+        }
+
+        /** the position searched, with the computer to move */
+        final Bitboard position;
+        /** true while the search is pondering, set on the event dispatch thread only */
+        volatile boolean ponder;
+    }
+
+    /** the search in progress or the ponder search, null if there is none */
+    private Search search;
+    /** whether to search while the human is thinking */
+    private boolean ponderEnabled = true;
+
+    /** the thread searches run on, so that the event dispatch thread stays free to repaint and take input */
+    private static final ExecutorService SEARCH_THREAD = Executors.newSingleThreadExecutor(new ThreadFactory() {
+        public Thread newThread(Runnable r) {
+            Thread t = new Thread(r, "checkers-search");
+            t.setDaemon(true);
+            return t;
+        }
+    });
+}
@@ -0,0 +1,23 @@
+package checkers;
+
+/**
+ * The settings of a SearchEngine.
+ * threads -- number of search threads. With more than one, the root moves are shared out among them.
+ * hashMegabytes -- size of the transposition table in MB.
+ * quiescenceDepth -- the most plies the search may go on capturing past its depth, 0 for no quiescence search.
+ * tablebase -- the endgame tables probed at the root and at every node, null for none. It can be shared by many engines.
+ * book -- the opening book probed before searching, null for none. It can be shared by many engines.
+ */
+public class SearchConfig {
+    public int threads = Runtime.getRuntime().availableProcessors();
+    public int hashMegabytes = 16;
+    public int quiescenceDepth = 8;
+    public Tablebase tablebase;
+    public OpeningBook book;
+
+    public SearchConfig() {}
+    public SearchConfig(int threads, int hashMegabytes) {
+        this.threads = threads;
+        this.hashMegabytes = hashMegabytes;
+    }
+}
@@ -0,0 +1,405 @@
+package checkers;
+
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.*;
+
+/**
+ * A search engine computing the best move of a position.
+ * All the state of a search lives in the engine, so several engines can search in one program at
+ * the same time, e.g. to play many games at once, and an engine needs nothing from the game window.
+ * <pre>
+ *     SearchEngine engine = new SearchEngine(config);
+ *     Agent.SearchResult result = engine.search(position, side, limits);
+ * </pre>
+ * The search is iterative deepening: it searches to depth 1, 2, 3... until the time budget runs
+ * out or the depth limit is reached, and returns the result of the last completed iteration.
+ * An engine runs one search at a time. A search can be cancelled by interrupting the thread running
+ * it. Its progress is reported to the engine's listeners after every iteration, and its statistics
+ * are kept in a SearchStats.
+ */
+public class SearchEngine {
+    /** the deepest ply a search can reach. */
+    static final int MAX_PLY = 64;
+    /** how far from the value of the previous iteration an aspiration window reaches, about a piece. */
+    static final int ASPIRATION_WINDOW = 8;
+
+    /** the settings of the engine, read at the start of every search. */
+    final SearchConfig config;
+    /** results of searched positions, shared by all searches of the engine. */
+    private final TranspositionTable table;
+    private int tableMegabytes;
+    /** the color the table was filled for; its scores are from that color's point of view. */
+    private int tableSide = -1;
+    /** one searcher per search thread. */
+    private Searcher[] searchers = new Searcher[0];
+    /** the threads running the searchers but the first one, which runs on the caller's thread. */
+    private ExecutorService pool;
+
+    /** the position at the root of the search. */
+    private final Bitboard position = new Bitboard();
+    /** the moves at the root of the search. */
+    private final int[] rootMoves = new int[MoveGenerator.MAX_MOVES];
+    /** the color the search is for; every score is from its point of view. */
+    int rootSide;
+    /** picks among the book moves of a position. */
+    private final Random random = new Random();
+    /** the time at which the current search has to stop. */
+    volatile long deadline;
+    /** the position and deadline of the last ponderhit, 0 once a search has taken it; guarded by this. */
+    private long ponderhitHash, ponderhitDeadline;
+    /** true once the current iteration runs out of time; its results are thrown away. */
+    volatile boolean stopped;
+    /** true while an iteration may be stopped, i.e. once a previous iteration has found a move. */
+    volatile boolean stoppable;
+
+    /** the statistics of the running or last search. */
+    private SearchStats stats = new SearchStats();
+    /** told about every search, the engine's own SearchEvents first. */
+    private final List<SearchListener> listeners = new CopyOnWriteArrayList<SearchListener>();
+
+    /**
+     * Construct an engine.
+     * @param config the settings of the engine. Changes to it take effect at the next search.
+     */
+    public SearchEngine(SearchConfig config) {
+        this.config = config;
+        tableMegabytes = config.hashMegabytes;
+        table = new TranspositionTable(tableMegabytes);
+        listeners.add(new SearchEvents());
+    }
+
+    /** Tell a listener about every search from the next one on. It may be called from any thread. */
+    public void addListener(SearchListener listener) {
+        listeners.add(listener);
+    }
+
+    /** Stop telling a listener about the searches. It may be called from any thread. */
+    public void removeListener(SearchListener listener) {
+        listeners.remove(listener);
+    }
+
+    /**
+     * Compute and return a best move for the given side.
+     * @param pos the position to search, left unchanged.
+     * @param side the color to find a move for, either Bitboard.BLACK or Bitboard.WHITE.
+     * @param limits how deep and how long to search. A depth past MAX_PLY - 1 is searched to MAX_PLY - 1.
+     * @return the result of the last completed iteration, or null if the search was cancelled before one completed.
+     */
+    public Agent.SearchResult search(Bitboard pos, int side, SearchLimits limits) {
+        long startNanos = System.nanoTime();
+        stopped = false;
+        stoppable = false;
+        stats = new SearchStats();
+        position.copyFrom(pos);
+        if(position.side != side) {
+            position.side = side;
+            position.hash = position.computeHash();
+        }
+        rootSide = side;
+        startSearchers();
+        if(tableSide != side) {
+            table.clear();
+            tableSide = side;
+        }
+        table.newSearch();
+        for(SearchListener listener : listeners)
+            listener.searchStarted(position, side, limits);
+        /* the budget runs from here, so that the listeners' time is not taken from it */
+        long start = System.currentTimeMillis();
+        synchronized(this) {
+            deadline = limits.timeBudget > 0 ? start + limits.timeBudget : Long.MAX_VALUE;
+            /* the opponent may have played the move pondered on before this search got here */
+            if(limits.timeBudget == 0 && ponderhitHash == position.hash && ponderhitDeadline != 0) {
+                deadline = ponderhitDeadline;
+                ponderhitDeadline = 0;
+            }
+        }
+
+        /* a position in the opening book or the tablebase needs no search */
+        Agent.SearchResult best = config.book == null ? null : config.book.probe(position, random);
+        stats.bookMove = best != null;
+        if(best == null)
+            best = probeRoot();
+        if(best == null) {
+            /* the move buffers of the searchers go no deeper */
+            int depthLimit = Math.min(limits.depth, MAX_PLY - 1);
+            for(int depth = 1; depth <= depthLimit; depth++) {
+                long nodes = stats.nodes;
+                Agent.SearchResult result = searchers.length == 1 ? searchSerial(depth, best) : searchParallel(depth);
+                if(stopped) break;
+                result.depth = depth;
+                best = result;
+                stoppable = true;
+                collectStats(startNanos);
+                stats.depth = depth;
+                stats.iterationNodes[depth] = stats.nodes - nodes;
+                for(SearchListener listener : listeners)
+                    listener.iterationCompleted(result, stats);
+                /* a won or lost game needs no deeper search, and another iteration would hardly finish in the time left */
+                if(Math.abs(result.value) >= 1000) break;
+                if(limits.timeBudget > 0 && System.currentTimeMillis() - start > limits.timeBudget / 2) break;
+            }
+        }
+
+        collectStats(startNanos);
+        for(SearchListener listener : listeners)
+            listener.searchFinished(best, stats);
+        return best;
+    }
+
+    /**
+     * Sum the counters of the searchers into the statistics of the search.
+     * @param startNanos the System.nanoTime at which the search started.
+     */
+    private void collectStats(long startNanos) {
+        stats.nodes = 0;
+        stats.quiescenceNodes = 0;
+        stats.leafEvaluations = 0;
+        stats.tablebaseHits = 0;
+        stats.maxDepth = 0;
+        stats.table.reset();
+        Arrays.fill(stats.cutoffs, 0);
+        for(Searcher s : searchers) {
+            stats.nodes += s.nodeGenerated;
+            stats.quiescenceNodes += s.quiescenceNodes;
+            stats.leafEvaluations += s.leafEvaluations;
+            stats.tablebaseHits += s.tablebaseHits;
+            stats.maxDepth = Math.max(stats.maxDepth, s.maxDepth);
+            stats.table.add(s.tableStats);
+            for(int d = 0; d < stats.cutoffs.length; d++)
+                stats.cutoffs[d] += s.cutoffs[d];
+        }
+        stats.elapsedNanos = System.nanoTime() - startNanos;
+    }
+
+    /**
+     * Look the root position up in the tablebase and take its best move from the tables:
+     * the move to the fastest win, or else to the slowest loss.
+     * @return the result, with depth 0 since nothing was searched, or null if the tables do not cover the position.
+     */
+    private Agent.SearchResult probeRoot() {
+        Tablebase tablebase = config.tablebase;
+        if(tablebase == null || tablebase.probe(position) == Tablebase.UNKNOWN) return null;
+        int n = MoveGenerator.generate(position, rootMoves);
+        if(n == 0) return null;
+        int bestMove = 0, bestDistance = 0;
+        for(int i = 0; i < n; i++) {
+            position.make(rootMoves[i]);
+            int distance = tablebase.probe(position) + 1;
+            position.unmake(rootMoves[i]);
+            boolean win = Tablebase.isWin(distance);
+            if(bestMove == 0 || (win && (!Tablebase.isWin(bestDistance) || distance < bestDistance))
+                    || (!win && !Tablebase.isWin(bestDistance) && distance > bestDistance)) {
+                bestMove = rootMoves[i];
+                bestDistance = distance;
+            }
+        }
+        searchers[0].tablebaseHits += n + 1;
+        Agent.SearchResult result = new Agent.SearchResult(null, Tablebase.isWin(bestDistance) ? 1000 : -1000);
+        result.move = bestMove;
+        result.depth = 0;
+        return result;
+    }
+
+    /**
+     * Give the search of a position, started without a time budget, a budget from now on. This is how a
+     * ponder search becomes the real one when the opponent plays the predicted move. The search may be
+     * running or not started yet: the budget is kept for it until it sets its deadline. It may be
+     * called from any thread.
+     * @param pos the position the search is for.
+     * @param timeBudget milliseconds the search may still take, 0 for no limit.
+     */
+    public synchronized void ponderhit(Bitboard pos, long timeBudget) {
+        if(timeBudget <= 0) return;
+        ponderhitHash = pos.hash;
+        ponderhitDeadline = System.currentTimeMillis() + timeBudget;
+        if(position.hash == pos.hash)
+            deadline = ponderhitDeadline;
+    }
+
+    /**
+     * Return the best move the transposition table holds for a position, e.g. to predict the
+     * opponent's reply after a search. Not to be called while a search runs.
+     * @param pos the position.
+     * @return the move, or 0 if the table has none or it is not legal in the position.
+     */
+    public int tableMove(Bitboard pos) {
+        long entry = table.probe(pos.hash, new TranspositionTable.Stats());
+        int move = entry == 0 ? 0 : TranspositionTable.move(entry);
+        if(move == 0) return 0;
+        int n = MoveGenerator.generate(pos, rootMoves);
+        for(int i = 0; i < n; i++)
+            if(rootMoves[i] == move) return move;
+        return 0;
+    }
+
+    /** Forget everything learnt from earlier searches, e.g. before a new game. */
+    public void clearTable() {
+        table.clear();
+    }
+
+    /** Stop the threads of the engine. It can still search afterwards, starting them again. */
+    public void shutdown() {
+        if(pool != null) pool.shutdownNow();
+        pool = null;
+        searchers = new Searcher[0];
+    }
+
+    /** Return the statistics of the last search. Not to be called while a search runs; listeners get them then. */
+    public SearchStats getStats() { return stats; }
+    /** Return the transposition table of the engine. */
+    TranspositionTable table() { return table; }
+
+    /**
+     * Get the table, searchers and threads ready for a new search, resizing the table or
+     * recreating the threads if the config changed since the last search.
+     */
+    private void startSearchers() {
+        int threads = Math.max(1, config.threads);
+        if(tableMegabytes != config.hashMegabytes) {
+            table.resize(config.hashMegabytes);
+            tableMegabytes = config.hashMegabytes;
+            tableSide = -1;
+        }
+        if(searchers.length != threads) {
+            if(pool != null) pool.shutdownNow();
+            pool = null;
+            searchers = new Searcher[threads];
+            for(int i = 0; i < threads; i++)
+                searchers[i] = new Searcher(this);
+            if(threads > 1)
+                pool = Executors.newFixedThreadPool(threads - 1, new ThreadFactory() {
+                    public Thread newThread(Runnable r) {
+                        Thread t = new Thread(r, "search");
+                        t.setDaemon(true);
+                        return t;
+                    }
+                });
+        }
+        for(Searcher s : searchers)
+            s.reset();
+    }
+
+    /**
+     * Search the root position to the given depth on the caller's thread.
+     * The search looks first in a narrow window around the value of the previous
+     * iteration, which is likely close, so that more of the tree is cut off. If the value falls
+     * outside the window, the search is made again with the window open on that side.
+     * @param depth the depth of the iteration.
+     * @param previous the result of the previous iteration, null for the first one.
+     * @return the result of the iteration.
+     */
+    private Agent.SearchResult searchSerial(int depth, Agent.SearchResult previous) {
+        Searcher s = searchers[0];
+        s.position.copyFrom(position);
+        s.cutoffDepth = depth;
+
+        int alpha = -Searcher.INFINITY, beta = Searcher.INFINITY;
+        if(previous != null && Math.abs(previous.value) < 1000) {
+            alpha = previous.value - ASPIRATION_WINDOW;
+            beta = previous.value + ASPIRATION_WINDOW;
+        }
+        int value = s.pvs(alpha, beta, 0);
+        while(!stopped && (value <= alpha || value >= beta)) {
+            if(value <= alpha) alpha = -Searcher.INFINITY;
+            else beta = Searcher.INFINITY;
+            value = s.pvs(alpha, beta, 0);
+        }
+        Agent.SearchResult result = new Agent.SearchResult(null, value);
+        result.pv = s.principalVariation(0);
+        result.move = result.pv.length == 0 ? 0 : result.pv[0];
+        return result;
+    }
+
+    /**
+     * Search the root position to the given depth with all searchers at once.
+     * Each searcher takes the next root move not yet taken and searches it against the best value
+     * found so far. That bound is lowered by one, so that a move as good as the best one gets an
+     * exact value too. Then the first move with the highest value is the best, exactly as in a
+     * serial search, whatever order the moves finish in.
+     * @param depth the depth of the iteration.
+     * @return the result of the iteration, null if it was stopped.
+     */
+    private Agent.SearchResult searchParallel(final int depth) {
+        searchers[0].nodeGenerated++; /* the root */
+        /* a root where the game is over has no moves to share out, as pvs finds in the serial search */
+        int terminal = searchers[0].terminalScore(position);
+        if(terminal != Searcher.NO_SCORE)
+            return new Agent.SearchResult(null, terminal);
+        final int n = MoveGenerator.generate(position, rootMoves);
+        searchers[0].position.copyFrom(position);
+        searchers[0].orderMoves(rootMoves, n, 0, TranspositionTable.move(table.probe(position.hash, searchers[0].tableStats)));
+        final int[] values = new int[n];
+        /* the line under each root move, the move itself left out */
+        final int[][] lines = new int[n][];
+        final AtomicInteger next = new AtomicInteger(0);
+        final AtomicInteger bestValue = new AtomicInteger(Integer.MIN_VALUE);
+        Runnable[] tasks = new Runnable[searchers.length];
+
+        for(int k = 0; k < searchers.length; k++) {
+            final Searcher s = searchers[k];
+            tasks[k] = new Runnable() {
+                public void run() {
+                    s.cutoffDepth = depth;
+                    for(int i = next.getAndIncrement(); i < n && !stopped; i = next.getAndIncrement()) {
+                        int alpha = bestValue.get();
+                        alpha = alpha == Integer.MIN_VALUE ? alpha : alpha - 1;
+                        s.position.copyFrom(position);
+                        s.position.make(rootMoves[i]);
+                        int value = -s.pvs(-Searcher.INFINITY, alpha == Integer.MIN_VALUE ? Searcher.INFINITY : -alpha, 1);
+                        values[i] = value;
+                        lines[i] = s.principalVariation(1);
+                        int b = bestValue.get();
+                        while(value > b && !bestValue.compareAndSet(b, value))
+                            b = bestValue.get();
+                    }
+                }
+            };
+        }
+        java.util.List<Future<?>> running = new ArrayList<Future<?>>();
+        for(int k = 1; k < tasks.length; k++)
+            running.add(pool.submit(tasks[k]));
+        /* the caller's thread runs the first searcher */
+        tasks[0].run();
+        /* every task is waited for, even once the search is cancelled, since the next search reuses the searchers */
+        boolean interrupted = false;
+        RuntimeException failure = null;
+        for(Future<?> f : running) {
+            while(true) {
+                try {
+                    f.get();
+                    break;
+                } catch (InterruptedException e) {
+                    interrupted = true;
+                    stopped = true;
+                } catch (ExecutionException e) {
+                    if(failure == null) failure = new RuntimeException(e.getCause());
+                    stopped = true;
+                    break;
+                }
+            }
+        }
+        if(interrupted) Thread.currentThread().interrupt();
+        if(failure != null) throw failure;
+        /* some root moves may not have been searched, or only partly */
+        if(stopped) return null;
+
+        Agent.SearchResult result = new Agent.SearchResult(null, Integer.MIN_VALUE);
+        int best = 0;
+        for(int i = 0; i < n; i++) {
+            if(result.value < values[i]) {
+                result.value = values[i];
+                result.move = rootMoves[i];
+                best = i;
+            }
+        }
+        if(n > 0) {
+            result.pv = new int[lines[best].length + 1];
+            result.pv[0] = result.move;
+            System.arraycopy(lines[best], 0, result.pv, 1, lines[best].length);
+        }
+        table.store(position.hash, depth, TranspositionTable.EXACT, result.value, result.move);
+        return result;
+    }
+}
@@ -0,0 +1,123 @@
+package checkers;
+
+import jdk.jfr.*;
+
+/**
+ * Records the searches of an engine as Java Flight Recorder events, so that they can be watched in
+ * a running game with the JDK's tools instead of on the console:
+ * <pre>
+ *     java -XX:StartFlightRecording=filename=checkers.jfr -jar game/target/russian-checkers.jar
+ *     jfr print --categories Checkers checkers.jfr
+ * </pre>
+ * Every engine has one. An event costs next to nothing while no recording is running.
+ */
+class SearchEvents implements SearchListener {
+    static {
+        /* the first use of an event sets JFR up, a few hundred ms: done here, with the engine, rather than in a search */
+        FlightRecorder.register(SearchStartEvent.class);
+        FlightRecorder.register(SearchIterationEvent.class);
+        FlightRecorder.register(SearchEndEvent.class);
+    }
+
+    /** the search in progress, begun when it started */
+    private SearchEndEvent search;
+    /** the iteration in progress, begun when the previous one completed */
+    private SearchIterationEvent iteration;
+
+    public void searchStarted(Bitboard position, int side, SearchLimits limits) {
+        SearchStartEvent event = new SearchStartEvent();
+        if(event.shouldCommit()) {
+            event.position = position.toNotation();
+            event.side = side;
+            event.depthLimit = limits.depth;
+            event.timeBudget = limits.timeBudget;
+            event.commit();
+        }
+        search = new SearchEndEvent();
+        search.begin();
+        iteration = new SearchIterationEvent();
+        iteration.begin();
+    }
+
+    public void iterationCompleted(Agent.SearchResult result, SearchStats stats) {
+        iteration.end();
+        if(iteration.shouldCommit()) {
+            iteration.depth = result.depth;
+            iteration.value = result.value;
+            iteration.move = Bitboard.moveToString(result.move);
+            iteration.nodes = stats.iterationNodes[result.depth];
+            iteration.branchingFactor = stats.branchingFactor();
+            iteration.commit();
+        }
+        iteration = new SearchIterationEvent();
+        iteration.begin();
+    }
+
+    public void searchFinished(Agent.SearchResult result, SearchStats stats) {
+        search.end();
+        if(search.shouldCommit()) {
+            search.depth = stats.depth;
+            search.maxDepth = stats.maxDepth;
+            search.value = result == null ? 0 : result.value;
+            search.move = result == null ? null : Bitboard.moveToString(result.move);
+            search.bookMove = stats.bookMove;
+            search.nodes = stats.nodes;
+            search.quiescenceNodes = stats.quiescenceNodes;
+            search.leafEvaluations = stats.leafEvaluations;
+            search.cutoffs = stats.totalCutoffs();
+            search.tableHits = stats.table.hits;
+            search.tablebaseHits = stats.tablebaseHits;
+            search.nodesPerSecond = stats.nodesPerSecond();
+            search.branchingFactor = stats.branchingFactor();
+            search.commit();
+        }
+        search = null;
+        iteration = null;
+    }
+
+    @Name("checkers.SearchStart")
+    @Label("Search Start")
+    @Category({"Checkers", "Search"})
+    @Description("A search starts")
+    @StackTrace(false)
+    static class SearchStartEvent extends Event {
+        @Label("Position") String position;
+        @Label("Side") int side;
+        @Label("Depth Limit") int depthLimit;
+        @Label("Time Budget") @Timespan(Timespan.MILLISECONDS) long timeBudget;
+    }
+
+    @Name("checkers.SearchIteration")
+    @Label("Search Iteration")
+    @Category({"Checkers", "Search"})
+    @Description("An iteration of the iterative deepening completes")
+    @StackTrace(false)
+    static class SearchIterationEvent extends Event {
+        @Label("Depth") int depth;
+        @Label("Value") int value;
+        @Label("Best Move") String move;
+        @Label("Nodes") long nodes;
+        @Label("Branching Factor") double branchingFactor;
+    }
+
+    @Name("checkers.SearchEnd")
+    @Label("Search")
+    @Category({"Checkers", "Search"})
+    @Description("A search ends, with its statistics")
+    @StackTrace(false)
+    static class SearchEndEvent extends Event {
+        @Label("Depth") int depth;
+        @Label("Max Depth") int maxDepth;
+        @Label("Value") int value;
+        @Label("Best Move") String move;
+        @Label("Book Move") boolean bookMove;
+        @Label("Nodes") long nodes;
+        @Label("Quiescence Nodes") long quiescenceNodes;
+        @Label("Leaf Evaluations") long leafEvaluations;
+        @Label("Cutoffs") long cutoffs;
+        @Label("Table Hits") long tableHits;
+        @Label("Tablebase Hits") long tablebaseHits;
+        @Label("Nodes per Second") double nodesPerSecond;
+        @Label("Branching Factor") double branchingFactor;
+    }
+}
@@ -0,0 +1,24 @@
+package checkers;
+
+/**
+ * How deep and how long a single search may go.
+ * depth -- the deepest iteration the search may start.
+ * timeBudget -- milliseconds the search may take, 0 for no limit.
+ */
+public class SearchLimits {
+    public int depth;
+    public long timeBudget;
+
+    public SearchLimits(int depth, long timeBudget) {
+        this.depth = depth;
+        this.timeBudget = timeBudget;
+    }
+
+    /**
+     * Return the limits of a game level.
+     * @param level how hard the game is. Could be BEGINNER, EASY, ADVANCED or HARD.
+     */
+    public static SearchLimits of(Agent.HardLevel level) {
+        return new SearchLimits(level.getCode(), level.getTimeBudget());
+    }
+}
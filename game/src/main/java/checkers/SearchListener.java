@@ -0,0 +1,33 @@
+package checkers;
+
+/**
+ * Gets told how the searches of a SearchEngine go, e.g. to show their progress or to record their
+ * statistics. The methods are called on the thread running the search, which waits for them, so
+ * they should return quickly and hand any lengthy work to another thread.
+ * <pre>
+ *     engine.addListener(listener);
+ * </pre>
+ */
+public interface SearchListener {
+    /**
+     * Called when a search starts.
+     * @param position the position searched, not to be changed.
+     * @param side the color the search is for.
+     * @param limits how deep and how long the search may go.
+     */
+    void searchStarted(Bitboard position, int side, SearchLimits limits);
+
+    /**
+     * Called when an iteration completes.
+     * @param result the result of the iteration, with its depth and principal variation.
+     * @param stats the statistics of the search so far.
+     */
+    void iterationCompleted(Agent.SearchResult result, SearchStats stats);
+
+    /**
+     * Called when a search ends, cancelled or not.
+     * @param result the result of the search, as returned by SearchEngine.search; null if none.
+     * @param stats the statistics of the whole search.
+     */
+    void searchFinished(Agent.SearchResult result, SearchStats stats);
+}
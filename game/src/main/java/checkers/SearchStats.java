@@ -0,0 +1,63 @@
+package checkers;
+
+/**
+ * The statistics of one search, summed over all its searchers. SearchEngine fills a new one for
+ * every search, brings it up to date after every iteration and hands it to its listeners; after
+ * the search it is the engine's getStats. It is only written by the thread running the search.
+ * nodes -- number of nodes generated, quiescence nodes included.
+ * quiescenceNodes -- number of those generated by the quiescence search.
+ * leafEvaluations -- number of positions scored by evaluate.
+ * cutoffs -- cutoffs[p] is the number of beta cutoffs of the main search at ply p. The side the
+ *            search is for moves at the even plies.
+ * iterationNodes -- iterationNodes[d] is the number of nodes generated by the iteration of depth d.
+ * table -- the lookups of the transposition table.
+ * tablebaseHits -- number of nodes decided by the tablebase.
+ * depth -- the depth of the last completed iteration, 0 if none.
+ * maxDepth -- the max depth the search went to, quiescence search included.
+ * bookMove -- whether the move was taken from the opening book.
+ * elapsedNanos -- the time the search has taken, up to the last update.
+ */
+public class SearchStats {
+    public long nodes;
+    public long quiescenceNodes;
+    public long leafEvaluations;
+    public final long[] cutoffs = new long[SearchEngine.MAX_PLY];
+    public final long[] iterationNodes = new long[SearchEngine.MAX_PLY + 1];
+    public final TranspositionTable.Stats table = new TranspositionTable.Stats();
+    public long tablebaseHits;
+    public int depth;
+    public int maxDepth;
+    public boolean bookMove;
+    public long elapsedNanos;
+
+    /** Return the number of beta cutoffs of the main search at all plies. */
+    public long totalCutoffs() {
+        long total = 0;
+        for(long c : cutoffs)
+            total += c;
+        return total;
+    }
+
+    /** Return the number of nodes generated per second. */
+    public double nodesPerSecond() {
+        return elapsedNanos == 0 ? 0 : nodes * 1e9 / elapsedNanos;
+    }
+
+    /**
+     * Return the effective branching factor: how many times more nodes the last iteration
+     * generated than the one before, i.e. what one more ply of depth costs.
+     * @return the factor, or 0 if fewer than two iterations completed.
+     */
+    public double branchingFactor() {
+        if(depth < 2 || iterationNodes[depth - 1] == 0) return 0;
+        return (double)iterationNodes[depth] / iterationNodes[depth - 1];
+    }
+
+    public String toString() {
+        if(bookMove) return "book move";
+        return String.format("depth %d (max %d), %d nodes (%d in quiescence), %d evaluations, %.0f nodes/s in %d ms, "
+                + "branching factor %.2f, %d cutoffs, transposition table: %d hits, %d misses, %d collisions, tablebase: %d hits",
+                depth, maxDepth, nodes, quiescenceNodes, leafEvaluations, nodesPerSecond(), elapsedNanos / 1000000,
+                branchingFactor(), totalCutoffs(), table.hits, table.misses, table.collisions, tablebaseHits);
+    }
+}
@@ -0,0 +1,381 @@
+package checkers;
+
+/**
+ * Searcher holds the state of one search thread: the position it searches, its move buffers and
+ * its counters. Several searchers can work on the same search at once, sharing only the
+ * transposition table and the stop flag of their SearchEngine.
+ */
+class Searcher {
+    /** the position searched, changed by make/unmake rather than copied at every node. */
+    final Bitboard position = new Bitboard();
+    /** one move buffer per depth, reused by every node at that depth. */
+    private final int[][] moveStack = new int[SearchEngine.MAX_PLY][MoveGenerator.MAX_MOVES];
+    /** the ordering keys of the moves in moveStack. */
+    private final int[][] keyStack = new int[SearchEngine.MAX_PLY][MoveGenerator.MAX_MOVES];
+    /** two regular moves per depth that recently caused a cutoff there, the latest first. */
+    private final int[][] killers = new int[SearchEngine.MAX_PLY][2];
+    /** how often and how deep below it each regular move caused a cutoff, indexed by color, from and to square. */
+    private final int[][][] history = new int[2][Bitboard.SQUARES][Bitboard.SQUARES];
+    /** the engine this searcher works for. */
+    private final SearchEngine engine;
+    /** results of searched positions, shared by all searchers of the engine. */
+    private final TranspositionTable table;
+    /** lookups of the transposition table made by this searcher. */
+    final TranspositionTable.Stats tableStats = new TranspositionTable.Stats();
+    /** the endgame tables of the engine's config, null for none. */
+    private Tablebase tablebase;
+
+    int cutoffDepth; /* the depth on which a cutoff is triggered. */
+    int quiescenceDepth; /* the most plies a quiescence search may go past cutoffDepth. */
+    int nodeGenerated = 0; /* number of node generated by this searcher, quiescence nodes included */
+    int quiescenceNodes = 0; /* number of node generated by the quiescence search */
+    int tablebaseHits = 0; /* number of node decided by the tablebase */
+    int maxDepth = 0; /* the max depth this searcher goes to. */
+    int leafEvaluations = 0; /* number of positions scored by evaluate */
+    final long[] cutoffs = new long[SearchEngine.MAX_PLY]; /* number of beta cutoffs of pvs at each depth */
+
+    /** the best line found at each depth, from that depth on: pvLines[d][d] to pvLines[d][pvLength[d] - 1]. */
+    private final int[][] pvLines = new int[SearchEngine.MAX_PLY + 1][SearchEngine.MAX_PLY];
+    private final int[] pvLength = new int[SearchEngine.MAX_PLY + 1];
+
+    /** returned by tableScore and terminalScore when they cannot decide a node. */
+    static final int NO_SCORE = Integer.MIN_VALUE;
+    /** a bound beyond any score, which can be negated, unlike Integer.MIN_VALUE. */
+    static final int INFINITY = 30000;
+    /** the history is halved once an entry grows past this, long before it could overflow. */
+    private static final int HISTORY_LIMIT = 1 << 24;
+
+    Searcher(SearchEngine engine) {
+        this.engine = engine;
+        this.table = engine.table();
+    }
+
+    /**
+     * Reset the counters before a new search.
+     * Killer moves are forgotten, and the history is halved so that older searches count for less.
+     */
+    void reset() {
+        quiescenceDepth = Math.max(0, engine.config.quiescenceDepth);
+        tablebase = engine.config.tablebase;
+        nodeGenerated = 0;
+        quiescenceNodes = 0;
+        tablebaseHits = 0;
+        maxDepth = 0;
+        leafEvaluations = 0;
+        java.util.Arrays.fill(cutoffs, 0);
+        tableStats.reset();
+        for(int[] k : killers)
+            k[0] = k[1] = 0;
+        ageHistory();
+    }
+
+    /** Halve every entry of the history. */
+    private void ageHistory() {
+        for(int[][] color : history)
+            for(int[] from : color)
+                for(int to = 0; to < from.length; to++)
+                    from[to] >>= 1;
+    }
+
+    /**
+     * Compute and return the value of the searched position for the side to move, in negamax form:
+     * the value of a child is the negated value found for the opponent.
+     * This is a principal variation search: the first move, the best one if the moves are well
+     * ordered, is searched with the full window. The other moves are only tested with a null window
+     * for being better than it, and searched again with the full window if they are.
+     * Each move is made on the position and taken back after its subtree is searched. Nothing is
+     * allocated: the best line found is written to pvLines, and the cutoffs counted in cutoffs.
+     * The table, the tablebase and evaluate score positions for the current player; their scores
+     * are turned into scores of the side to move.
+     * @param alpha the value the side to move is already sure of.
+     * @param beta the value the opponent is already sure of, negated.
+     * @param depth the depth at which this procedure is called.
+     * @return the value of the best choice for the side to move.
+     */
+    int pvs(int alpha, int beta, int depth) {
+        nodeGenerated++;
+        checkTime();
+        pvLength[depth] = depth;
+        int known = tablebaseScore(depth);
+        if(known != NO_SCORE)
+            return relative(known);
+        if(maxDepth < depth){ maxDepth = depth; }
+        /* at the cutoff the evaluation tests for the end of the game itself */
+        if(depth == cutoffDepth) 
+            return quiescence(alpha, beta, depth);
+        int terminal = terminalScore(position);
+        if(terminal != NO_SCORE)
+            return terminal;
+        /* the window as the current player sees it, for the table */
+        boolean rootToMove = position.side == engine.rootSide;
+        int rootAlpha = rootToMove ? alpha : -beta;
+        int rootBeta = rootToMove ? beta : -alpha;
+        long entry = table.probe(position.hash, tableStats);
+        int stored = tableScore(entry, rootAlpha, rootBeta, depth);
+        if(stored != NO_SCORE)
+            return relative(stored);
+
+        int best = -INFINITY;
+        int bestMove = 0;
+        int[] moves = moveStack[depth];
+        int n = MoveGenerator.generate(position, moves);
+        orderMoves(moves, n, depth, TranspositionTable.move(entry));
+        for(int i = 0; i < n; i++) {
+            position.make(moves[i]);
+            int value;
+            if(i == 0) {
+                value = -pvs(-beta, -alpha, depth+1);
+            } else {
+                value = -pvs(-alpha-1, -alpha, depth+1);
+                if(!engine.stopped && value > alpha && value < beta)
+                    value = -pvs(-beta, -alpha, depth+1);
+            }
+            position.unmake(moves[i]);
+            if(engine.stopped) return best;
+            if(best < value) {
+                best = value;
+                bestMove = moves[i];
+                if(value > alpha) updateLine(moves[i], depth);
+            }
+            if(best >= beta) {
+                cutoffs[depth]++;
+                rememberCutoff(moves[i], depth);
+                break;
+            }
+            alpha = alpha > best ? alpha : best;
+        }
+        storeTable(relative(best), bestMove, rootAlpha, rootBeta, depth);
+        return best;
+    }
+
+    /**
+     * Make a move the best line of its depth: the move, then the best line found below it.
+     * @param move the move.
+     * @param depth the depth it was made at.
+     */
+    private void updateLine(int move, int depth) {
+        int[] line = pvLines[depth];
+        int[] below = pvLines[depth + 1];
+        line[depth] = move;
+        for(int i = depth + 1; i < pvLength[depth + 1]; i++)
+            line[i] = below[i];
+        pvLength[depth] = Math.max(depth + 1, pvLength[depth + 1]);
+    }
+
+    /**
+     * Return the best line found by the last call of pvs at a depth, from that depth on.
+     * @param depth the depth, 0 for the line from the root.
+     * @return the moves of the line, empty if no move beat alpha there.
+     */
+    int[] principalVariation(int depth) {
+        return java.util.Arrays.copyOfRange(pvLines[depth], depth, pvLength[depth]);
+    }
+
+    /**
+     * Compute and return the value of a leaf for the side to move, searching on through the captures
+     * open to either side until the position is quiet, so that a pending capture is not left to the guess
+     * of evaluate. Capturing is mandatory, so a side that can capture gets no evaluation of its own:
+     * only a quiet position, or one at the end of the quiescence depth, is evaluated.
+     * @param alpha the value the side to move is already sure of.
+     * @param beta the value the opponent is already sure of, negated.
+     * @param depth the depth at which this procedure is called, cutoffDepth or deeper.
+     * @return the value of the leaf for the side to move.
+     */
+    private int quiescence(int alpha, int beta, int depth) {
+        if(depth > cutoffDepth) {
+            nodeGenerated++;
+            quiescenceNodes++;
+            checkTime();
+            if(maxDepth < depth){ maxDepth = depth; }
+        }
+        int value = relative(evaluate(position));
+        leafEvaluations++;
+        if(Math.abs(value) >= 1000 || depth - cutoffDepth >= quiescenceDepth
+                || depth == SearchEngine.MAX_PLY - 1) return value;
+        int[] moves = moveStack[depth];
+        int n = MoveGenerator.generateCaptures(position, moves);
+        /* a quiet position is worth its evaluation; otherwise a capture must be made */
+        if(n == 0) return value;
+        orderMoves(moves, n, depth, 0);
+        value = -INFINITY;
+        for(int i = 0; i < n; i++) {
+            position.make(moves[i]);
+            int v = -quiescence(-beta, -alpha, depth+1);
+            position.unmake(moves[i]);
+            if(engine.stopped) return value;
+            value = value > v ? value : v;
+            if(value >= beta) return value;
+            alpha = alpha > value ? alpha : value;
+        }
+        return value;
+    }
+
+    /**
+     * Stop the current iteration if the search runs out of time or its thread is interrupted.
+     * The clock is read only once every 1024 nodes.
+     */
+    private void checkTime() {
+        if((nodeGenerated & 1023) == 0 && (engine.stoppable && System.currentTimeMillis() >= engine.deadline
+                || Thread.currentThread().isInterrupted()))
+            engine.stopped = true;
+    }
+
+    /**
+     * Decide a node from its entry in the transposition table.
+     * The root is always searched, so that a move is found.
+     * @param entry the entry of the searched position, 0 if none.
+     * @param alpha the value of the best choice found so far at any choice point along the path for MAX.
+     * @param beta the value of the best choice found so far at any choice point along the path for MIN.
+     * @param depth the depth at which this procedure is called.
+     * @return the stored score if it was searched deep enough and decides the node, NO_SCORE otherwise.
+     */
+    private int tableScore(long entry, int alpha, int beta, int depth) {
+        if(depth == 0 || entry == 0 || TranspositionTable.depth(entry) < cutoffDepth - depth) return NO_SCORE;
+        int score = TranspositionTable.score(entry);
+        switch(TranspositionTable.bound(entry)) {
+            case TranspositionTable.EXACT: return score;
+            case TranspositionTable.LOWER: return score >= beta ? score : NO_SCORE;
+            default: return score <= alpha ? score : NO_SCORE;
+        }
+    }
+
+    /**
+     * Decide a node from the tablebase, which knows the outcome of the game from it for sure.
+     * The root is left to SearchEngine.
+     * @param depth the depth at which this procedure is called.
+     * @return 1000 if the current player wins, -1000 if it loses, NO_SCORE if the tables do not cover the node.
+     */
+    private int tablebaseScore(int depth) {
+        if(tablebase == null || depth == 0) return NO_SCORE;
+        int distance = tablebase.probe(position);
+        if(distance == Tablebase.UNKNOWN) return NO_SCORE;
+        tablebaseHits++;
+        return Tablebase.isWin(distance) == (position.side == engine.rootSide) ? 1000 : -1000;
+    }
+
+    /**
+     * Sort the moves of a node so that the ones most likely to cause a cutoff are searched first:
+     * the best move stored in the transposition table, then captures, the more pieces taken the
+     * earlier, then the killer moves of the depth, then the other moves by their history.
+     * The root moves past the captures keep the order they were generated in, so that a serial and
+     * a parallel search break ties between equal moves alike.
+     * @param moves the moves of the node.
+     * @param n the number of moves.
+     * @param depth the depth of the node.
+     * @param tableMove the best move stored in the transposition table for the node, 0 if none.
+     */
+    void orderMoves(int[] moves, int n, int depth, int tableMove) {
+        int[] keys = keyStack[depth];
+        int[] killer = killers[depth];
+        int[][] scores = history[position.side];
+        for(int i = 0; i < n; i++) {
+            int move = moves[i];
+            long captured = Bitboard.captured(move);
+            int key;
+            if(move == tableMove) key = Integer.MAX_VALUE;
+            else if(captured != 0) key = Integer.MAX_VALUE - 64 + Long.bitCount(captured);
+            else if(depth == 0) key = 0;
+            else if(move == killer[0]) key = Integer.MAX_VALUE - 65;
+            else if(move == killer[1]) key = Integer.MAX_VALUE - 66;
+            else key = scores[Bitboard.from(move)][Bitboard.to(move)];
+            /* insertion sort, stable, since there are seldom more than a dozen moves */
+            int j = i;
+            for(; j > 0 && keys[j - 1] < key; j--) {
+                keys[j] = keys[j - 1];
+                moves[j] = moves[j - 1];
+            }
+            keys[j] = key;
+            moves[j] = move;
+        }
+    }
+
+    /**
+     * Remember a move that caused a cutoff as a killer of its depth and in the history.
+     * Captures are searched early anyway, so only regular moves are remembered.
+     * @param move the move.
+     * @param depth the depth it was made at.
+     */
+    private void rememberCutoff(int move, int depth) {
+        if(Bitboard.captured(move) != 0) return;
+        int[] killer = killers[depth];
+        if(killer[0] != move) {
+            killer[1] = killer[0];
+            killer[0] = move;
+        }
+        int left = cutoffDepth - depth;
+        int[] scores = history[position.side][Bitboard.from(move)];
+        scores[Bitboard.to(move)] += left * left;
+        if(scores[Bitboard.to(move)] > HISTORY_LIMIT) ageHistory();
+    }
+
+    /**
+     * Store the result of searching the searched position in the transposition table.
+     * The value and the window are the current player's, like those the table holds.
+     * @param value the value found.
+     * @param move the best move found, 0 if none.
+     * @param alpha the value of alpha the node was searched with.
+     * @param beta the value of beta the node was searched with.
+     * @param depth the depth at which the node was searched.
+     */
+    private void storeTable(int value, int move, int alpha, int beta, int depth) {
+        int bound = value <= alpha ? TranspositionTable.UPPER
+                  : value >= beta ? TranspositionTable.LOWER : TranspositionTable.EXACT;
+        table.store(position.hash, cutoffDepth - depth, bound, value, move);
+    }
+
+    /**
+     * Return a score of the side to move for the current player, or the other way round:
+     * the table, the tablebase and evaluate score positions for the current player, pvs for the side to move.
+     */
+    private int relative(int score) {
+        return position.side == engine.rootSide ? score : -score;
+    }
+
+    /**
+     * Test once per node whether the game is over in the given position, i.e. whether the side to move
+     * has no legal move left, and return its value if so. As in the game and the tablebase, only the
+     * side to move loses by being blocked; a blocked opponent may still get a move back. The test is a
+     * few shifts and masks (see MoveGenerator.hasMove), and a node that passes it goes on without testing
+     * again. Nodes at the cutoff skip it, since evaluate finds the same out from the counts it needs anyway.
+     * @param pos the position to test.
+     * @return -1000, a lost game for the side to move, if it is blocked, NO_SCORE if it is not.
+     */     
+    int terminalScore(Bitboard pos) {
+        return MoveGenerator.hasMove(pos, pos.side) ? NO_SCORE : -1000;
+    }
+
+    /**
+     * Compute and return the value of the given position for the current player.
+     * If the side to move has no move left, the game is over: it returns a MAX value (1000) if the
+     * opponent is to move, a MIN value (-1000) if the current player is.
+     * Otherwise, it returns an estimated value resulted as a weighted sum based on <br/>
+     *  -- the difference of numbers of chesses currently owned by the two players. <br/>
+     *  -- the difference of numbers of possible moves can be taken by the two players. <br/>
+     *  -- the difference of numbers of possible jumps can be taken by the two players. <br/>
+     * @param pos the position to evaluate.
+     * @return the value of the given position for the current player.
+     */     
+    private int evaluate(Bitboard pos) {
+        return evaluate(pos, engine.rootSide);
+    }
+
+    /**
+     * Compute and return the value of the given position for the given color, as evaluate does for the current player.
+     * @param pos the position to evaluate.
+     * @param rep the color to evaluate the position for, either Bitboard.BLACK or Bitboard.WHITE.
+     * @return the value of the given position for rep.
+     */
+    static int evaluate(Bitboard pos, int rep) {
+        int other = rep ^ 1;
+        int movesRep = MoveGenerator.countMoves(pos, rep);
+        int movesOther = MoveGenerator.countMoves(pos, other);
+        int jumpsRep = MoveGenerator.countJumps(pos, rep);
+        int jumpsOther = MoveGenerator.countJumps(pos, other);
+        /* the side to move with neither a move nor a jump has lost, the same test as terminalScore */
+        if(pos.side == other && movesOther + jumpsOther == 0) return 1000;
+        if(pos.side == rep && movesRep + jumpsRep == 0) return -1000;
+
+        int deltaChess = Long.bitCount(pos.pieces[rep]) - Long.bitCount(pos.pieces[other]);
+        return 8*deltaChess + (movesRep - movesOther) + 10*(jumpsRep - jumpsOther);
+    }
+}
@@ -0,0 +1,264 @@
+package checkers;
+
+import java.io.*;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.*;
+
+/**
+ * A command-line runner playing engine-vs-engine games without a game window, to measure
+ * how fast and how strong the engine is. Games are played by a pool of workers, each with
+ * its own pair of engines, and every move is played at once instead of being animated.
+ * <pre>
+ *     java checkers.SelfPlay [-games N] [-workers N] [-level LEVEL] [-black LEVEL] [-white LEVEL]
+ *                   [-time MS] [-threads N] [-hash MB] [-quiescence PLIES] [-tablebase FILE]
+ *                   [-book FILE] [-random PLIES] [-seed N] [-positions FILE] [-out FILE]
+ * </pre>
+ * -games     number of games to play, 100 by default.
+ * -workers   number of games played at once, the number of available processors by default.
+ * -level     game level of both engines: BEGINNER, EASY, ADVANCED or HARD. BEGINNER by default.
+ * -black, -white  game level of the engine playing that color.
+ * -time      time budget of every move in milliseconds, 0 to search to the depth of the level.
+ *            The time budget of the level by default.
+ * -threads   search threads per engine, 1 by default.
+ * -hash      transposition table size per engine in MB, 16 by default.
+ * -quiescence most plies the search may go on capturing past its depth, 0 for none. 8 by default.
+ * -tablebase endgame tables written by Tablebase, probed by both engines. None by default.
+ * -book      opening book written by OpeningBook, probed by both engines. None by default.
+ * -random    number of random moves played first, so that the games are not all the same. 0 by default.
+ * -seed      seed of the random moves.
+ * -positions file of start positions, one per line as written by Bitboard.toNotation, played in turn.
+ *            Games start from CheckersGame.initCBS by default.
+ * -out       file the results are written to, selfplay.txt by default.
+ */
+public class SelfPlay {
+    /** a game still going after this many moves is a draw. */
+    static final int MAX_PLIES = 200;
+
+    public static void main(String[] args) throws Exception {
+        int games = 100;
+        int workers = Runtime.getRuntime().availableProcessors();
+        Agent.HardLevel black = Agent.HardLevel.BEGINNER;
+        Agent.HardLevel white = Agent.HardLevel.BEGINNER;
+        long time = -1;
+        int threads = 1;
+        int hash = 16;
+        int quiescence = new SearchConfig().quiescenceDepth;
+        String tablebase = null;
+        String book = null;
+        int randomPlies = 0;
+        long seed = 1;
+        String positions = null;
+        String out = "selfplay.txt";
+        try {
+            for(int i = 0; i < args.length; i++) {
+                String arg = args[i];
+                String value = i + 1 < args.length ? args[++i] : "";
+                if(arg.equals("-games")) games = Integer.parseInt(value);
+                else if(arg.equals("-workers")) workers = Integer.parseInt(value);
+                else if(arg.equals("-level")) black = white = Agent.HardLevel.valueOf(value.toUpperCase());
+                else if(arg.equals("-black")) black = Agent.HardLevel.valueOf(value.toUpperCase());
+                else if(arg.equals("-white")) white = Agent.HardLevel.valueOf(value.toUpperCase());
+                else if(arg.equals("-time")) time = Long.parseLong(value);
+                else if(arg.equals("-threads")) threads = Integer.parseInt(value);
+                else if(arg.equals("-hash")) hash = Integer.parseInt(value);
+                else if(arg.equals("-quiescence")) quiescence = Integer.parseInt(value);
+                else if(arg.equals("-tablebase")) tablebase = value;
+                else if(arg.equals("-book")) book = value;
+                else if(arg.equals("-random")) randomPlies = Integer.parseInt(value);
+                else if(arg.equals("-seed")) seed = Long.parseLong(value);
+                else if(arg.equals("-positions")) positions = value;
+                else if(arg.equals("-out")) out = value;
+                else throw new IllegalArgumentException("unknown option " + arg);
+            }
+        } catch (IllegalArgumentException e) {
+            System.err.println(e.getMessage());
+            System.err.println("usage: java checkers.SelfPlay [-games N] [-workers N] [-level LEVEL] [-black LEVEL] [-white LEVEL] "
+                    + "[-time MS] [-threads N] [-hash MB] [-quiescence PLIES] [-tablebase FILE] [-book FILE] [-random PLIES] [-seed N] [-positions FILE] [-out FILE]");
+            System.exit(1);
+        }
+
+        java.util.List<Bitboard> starts = new ArrayList<Bitboard>();
+        if(positions != null) {
+            BufferedReader in = new BufferedReader(new FileReader(positions));
+            try {
+                for(String line = in.readLine(); line != null; line = in.readLine())
+                    if(line.trim().length() > 0 && !line.startsWith("#"))
+                        starts.add(Bitboard.parse(line));
+            } finally {
+                in.close();
+            }
+        }
+        if(starts.isEmpty())
+            starts.add(new Bitboard(CheckersGame.initCBS, CheckerStatus.BLACK));
+
+        final SearchLimits[] limits = new SearchLimits[2];
+        limits[Bitboard.BLACK] = SearchLimits.of(black);
+        limits[Bitboard.WHITE] = SearchLimits.of(white);
+        if(time >= 0) {
+            limits[Bitboard.BLACK].timeBudget = time;
+            limits[Bitboard.WHITE].timeBudget = time;
+        }
+
+        System.out.println(String.format("playing %d games, %s (black) vs %s (white), %d workers", games, black, white, workers));
+        SearchConfig config = new SearchConfig(threads, hash);
+        config.quiescenceDepth = quiescence;
+        if(tablebase != null)
+            config.tablebase = Tablebase.open(new File(tablebase));
+        if(book != null)
+            config.book = OpeningBook.open(new File(book));
+        GameRecord[] records = play(games, workers, starts, limits, config, randomPlies, seed);
+        String summary = summarize(records);
+        System.out.print(summary);
+
+        PrintWriter writer = new PrintWriter(new FileWriter(out));
+        try {
+            writer.println(String.format("# %d games, %s (black) vs %s (white), time %d/%d ms, %d threads, %d MB, quiescence %d, tablebase %s, book %s, %d random plies",
+                    games, black, white, limits[Bitboard.BLACK].timeBudget, limits[Bitboard.WHITE].timeBudget, threads, hash, quiescence,
+                    tablebase == null ? "none" : tablebase, book == null ? "none" : book, randomPlies));
+            writer.println("# game  start  result  plies  nodes  search-ms  moves");
+            for(int i = 0; i < records.length; i++) {
+                GameRecord r = records[i];
+                writer.println(String.format("%d  %s  %s  %d  %d  %d  %s",
+                        i, r.start, r.result(), r.plies, r.nodes, r.searchNanos / 1000000, r.moves));
+            }
+            writer.print(summary);
+        } finally {
+            writer.close();
+        }
+        System.out.println("results written to " + out);
+    }
+
+    /**
+     * Play the games on a pool of workers.
+     * @return the record of every game, in the order the games were numbered.
+     */
+    static GameRecord[] play(final int games, int workers, final java.util.List<Bitboard> starts, final SearchLimits[] limits,
+                             final SearchConfig config, final int randomPlies, final long seed) throws InterruptedException {
+        final GameRecord[] records = new GameRecord[games];
+        final AtomicInteger next = new AtomicInteger(0);
+        ExecutorService pool = Executors.newFixedThreadPool(Math.max(1, workers));
+        long start = System.nanoTime();
+        for(int w = 0; w < Math.max(1, workers); w++) {
+            pool.execute(new Runnable() {
+                public void run() {
+                    SearchEngine[] engines = { new SearchEngine(copy(config)), new SearchEngine(copy(config)) };
+                    for(int i = next.getAndIncrement(); i < games; i = next.getAndIncrement())
+                        records[i] = playGame(starts.get(i % starts.size()), engines, limits, randomPlies, new Random(seed + i));
+                    engines[0].shutdown();
+                    engines[1].shutdown();
+                }
+            });
+        }
+        pool.shutdown();
+        pool.awaitTermination(Long.MAX_VALUE, TimeUnit.DAYS);
+        wallNanos = System.nanoTime() - start;
+        return records;
+    }
+
+    /** wall-clock time of the last call to play. */
+    static long wallNanos;
+
+    private static SearchConfig copy(SearchConfig config) {
+        SearchConfig c = new SearchConfig(config.threads, config.hashMegabytes);
+        c.quiescenceDepth = config.quiescenceDepth;
+        c.tablebase = config.tablebase;
+        c.book = config.book;
+        return c;
+    }
+
+    /**
+     * Play one game to its end.
+     * @param start the position the game starts from.
+     * @param engines the engines playing black and white.
+     * @param limits the limits of a search by each color.
+     * @param randomPlies the number of random moves played first.
+     * @param random the source of the random moves.
+     * @return the record of the game.
+     */
+    static GameRecord playGame(Bitboard start, SearchEngine[] engines, SearchLimits[] limits, int randomPlies, Random random) {
+        GameRecord record = new GameRecord();
+        record.start = start.toNotation();
+        Bitboard pos = new Bitboard();
+        pos.copyFrom(start);
+        engines[0].clearTable();
+        engines[1].clearTable();
+        int[] moves = new int[MoveGenerator.MAX_MOVES];
+        StringBuilder played = new StringBuilder();
+        while(true) {
+            if(!MoveGenerator.hasMove(pos, pos.side)) {
+                record.winner = pos.side ^ 1;
+                break;
+            }
+            if(record.plies >= MAX_PLIES) {
+                record.winner = -1;
+                break;
+            }
+            int move;
+            if(record.plies < randomPlies) {
+                int n = MoveGenerator.generate(pos, moves);
+                move = moves[random.nextInt(n)];
+            } else {
+                SearchEngine engine = engines[pos.side];
+                long t0 = System.nanoTime();
+                Agent.SearchResult result = engine.search(pos, pos.side, limits[pos.side]);
+                record.searchNanos += System.nanoTime() - t0;
+                record.searches++;
+                record.nodes += engine.getStats().nodes;
+                /* the side to move has a move, so a search without one is a bug of the engine, not the end of the game */
+                if(result == null || result.move == 0)
+                    throw new IllegalStateException("no move found in " + pos.toNotation());
+                move = result.move;
+            }
+            played.append(played.length() == 0 ? "" : " ").append(Bitboard.moveToString(move));
+            pos.make(move);
+            record.plies++;
+        }
+        record.moves = played.toString();
+        return record;
+    }
+
+    /**
+     * Return the throughput and results of the games in a few lines.
+     */
+    static String summarize(GameRecord[] records) {
+        int[] wins = new int[2];
+        int draws = 0;
+        long nodes = 0, searchNanos = 0, searches = 0, plies = 0;
+        for(GameRecord r : records) {
+            if(r.winner < 0) draws++;
+            else wins[r.winner]++;
+            nodes += r.nodes;
+            searchNanos += r.searchNanos;
+            searches += r.searches;
+            plies += r.plies;
+        }
+        double wall = wallNanos / 1e9;
+        StringBuilder sb = new StringBuilder();
+        sb.append(String.format("games: %d in %.2f s, %.2f games/s, %.1f moves per game%n",
+                records.length, wall, records.length / wall, (double)plies / Math.max(1, records.length)));
+        sb.append(String.format("nodes: %d, %.0f nodes/s per search, %.0f nodes/s overall%n",
+                nodes, nodes / Math.max(1e-9, searchNanos / 1e9), nodes / wall));
+        sb.append(String.format("average move latency: %.2f ms over %d searches%n",
+                searchNanos / 1e6 / Math.max(1, searches), searches));
+        sb.append(String.format("black wins: %d, white wins: %d, draws: %d (black W/D/L %d/%d/%d)%n",
+                wins[Bitboard.BLACK], wins[Bitboard.WHITE], draws, wins[Bitboard.BLACK], draws, wins[Bitboard.WHITE]));
+        return sb.toString();
+    }
+}
+
+/**
+ * What happened in one game of SelfPlay.
+ * winner -- Bitboard.BLACK or Bitboard.WHITE, -1 for a draw.
+ */
+class GameRecord {
+    String start;
+    String moves;
+    int winner;
+    int plies;
+    long nodes;
+    long searchNanos;
+    int searches;
+
+    String result() { return winner < 0 ? "draw" : winner == Bitboard.BLACK ? "black" : "white"; }
+}
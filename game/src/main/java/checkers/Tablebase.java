@@ -0,0 +1,294 @@
+package checkers;
+
+import java.io.*;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+
+/**
+ * An endgame tablebase: the exact outcome of every position with up to a given number of pieces.
+ * Pieces never turn back except to capture, so every move either advances a piece or takes one,
+ * no position can ever come back and every game ends. There are no draws, and a position is known
+ * by a single number: the number of plies left to the end of the game under best play, the winner
+ * hurrying and the loser holding out. The side to move wins if that distance is odd and loses if
+ * it is even; 0 means it has no move left.
+ *
+ * The generator works back from the end of the game: a position is solved once all its successors
+ * are, which they can always be since a successor has fewer pieces or its pieces further advanced.
+ *
+ * File format, big-endian: the magic number "RCTB", the format version, the most pieces covered and
+ * a reserved int, then one byte per position holding its distance. Positions are grouped by the number
+ * of black and of white pieces, black from 1 up, white from 1 up within each; inside a group a position
+ * is ranked by its black squares, then its white squares among the squares left, then the side to move.
+ * The file is memory-mapped, so opening it is cheap and probes read straight from the page cache.
+ * <pre>
+ *     java checkers.Tablebase [-pieces N] [-out FILE]
+ * </pre>
+ * -pieces the most pieces on the board, 6 by default.
+ * -out    the file the tables are written to, tablebase.bin by default.
+ */
+public class Tablebase {
+    /** the file Agent loads the tables from, unless the system property checkers.tablebase names another. */
+    public static final String DEFAULT_FILE = "tablebase.bin";
+    /** returned by probe for a position the tables do not cover. */
+    public static final int UNKNOWN = -1;
+
+    private static final int MAGIC = 0x52435442;
+    /** version 2: made with mandatory captures */
+    private static final int VERSION = 2;
+    private static final int HEADER_BYTES = 16;
+    /** the distance of a position not solved yet, during generation. */
+    private static final int UNSOLVED = 0xff;
+
+    /** BINOMIAL[n][k] is n choose k. */
+    private static final int[][] BINOMIAL = new int[Bitboard.SQUARES + 1][Bitboard.SQUARES + 1];
+
+    static {
+        for(int n = 0; n <= Bitboard.SQUARES; n++) {
+            BINOMIAL[n][0] = 1;
+            for(int k = 1; k <= n; k++)
+                BINOMIAL[n][k] = BINOMIAL[n - 1][k - 1] + (k < n ? BINOMIAL[n - 1][k] : 0);
+        }
+    }
+
+    private final int maxPieces;
+    /** offset[b][w] is the index of the first position with b black and w white pieces. */
+    private final int[][] offset;
+    private final MappedByteBuffer data;
+
+    private Tablebase(int maxPieces, MappedByteBuffer data) {
+        this.maxPieces = maxPieces;
+        this.offset = offsets(maxPieces);
+        this.data = data;
+    }
+
+    /**
+     * Open a tablebase file.
+     * @param file the file written by generate.
+     * @return the tables of the file.
+     * @throws IOException if the file cannot be read or is not a tablebase.
+     */
+    public static Tablebase open(File file) throws IOException {
+        RandomAccessFile in = new RandomAccessFile(file, "r");
+        try {
+            MappedByteBuffer data = in.getChannel().map(FileChannel.MapMode.READ_ONLY, 0, in.length());
+            data.order(ByteOrder.BIG_ENDIAN);
+            if(in.length() < HEADER_BYTES || data.getInt(0) != MAGIC || data.getInt(4) != VERSION)
+                throw new IOException(file + " is not a tablebase");
+            int maxPieces = data.getInt(8);
+            if(maxPieces < 2 || maxPieces > Bitboard.SQUARES || in.length() != HEADER_BYTES + positions(maxPieces))
+                throw new IOException(file + " is truncated or corrupt");
+            return new Tablebase(maxPieces, data);
+        } finally {
+            /* the mapping stays valid after the file is closed */
+            in.close();
+        }
+    }
+
+    /**
+     * Open the tablebase file Agent uses, if there is one.
+     * @return the tables, or null if the file does not exist or cannot be read.
+     */
+    public static Tablebase openDefault() {
+        File file = new File(System.getProperty("checkers.tablebase", DEFAULT_FILE));
+        if(!file.isFile()) return null;
+        try {
+            return open(file);
+        } catch (IOException e) {
+            System.err.println("tablebase not loaded: " + e.getMessage());
+            return null;
+        }
+    }
+
+    /** Return the most pieces of a position the tables cover. */
+    public int maxPieces() { return maxPieces; }
+
+    /**
+     * Look a position up.
+     * @param pos the position.
+     * @return the number of plies to the end of the game under best play, odd if the side to move wins
+     * and even if it loses, or UNKNOWN if the position has more pieces than the tables cover.
+     */
+    public int probe(Bitboard pos) {
+        long own = pos.pieces[pos.side];
+        if(own == 0) return 0;
+        int black = Long.bitCount(pos.pieces[Bitboard.BLACK]);
+        int white = Long.bitCount(pos.pieces[Bitboard.WHITE]);
+        if(black == 0 || white == 0 || black + white > maxPieces) return UNKNOWN;
+        return data.get(HEADER_BYTES + offset[black][white] + index(pos, black, white)) & 0xff;
+    }
+
+    /** Return true if the side to move wins a position at the given distance from the end. */
+    public static boolean isWin(int distance) {
+        return (distance & 1) != 0;
+    }
+
+    /**
+     * Return the index of a position among those with the same number of black and white pieces.
+     * The black squares are ranked among all squares and the white ones among the squares left,
+     * each set by its rank in the colexicographic order of the sets of its size.
+     */
+    private static int index(Bitboard pos, int black, int white) {
+        long blacks = pos.pieces[Bitboard.BLACK];
+        long whites = pos.pieces[Bitboard.WHITE];
+        int rankBlack = 0, rankWhite = 0, i = 0, j = 0;
+        for(long bits = blacks; bits != 0; bits &= bits - 1)
+            rankBlack += BINOMIAL[Long.numberOfTrailingZeros(bits)][++i];
+        for(long bits = whites; bits != 0; bits &= bits - 1) {
+            int s = Long.numberOfTrailingZeros(bits);
+            /* the square's place among the squares without a black piece */
+            rankWhite += BINOMIAL[s - Long.bitCount(blacks & ((1L << s) - 1))][++j];
+        }
+        return ((rankBlack * BINOMIAL[Bitboard.SQUARES - black][white]) + rankWhite) * 2 + pos.side;
+    }
+
+    /** Return the number of positions with b black and w white pieces. */
+    private static int groupSize(int b, int w) {
+        return BINOMIAL[Bitboard.SQUARES][b] * BINOMIAL[Bitboard.SQUARES - b][w] * 2;
+    }
+
+    private static int[][] offsets(int maxPieces) {
+        int[][] offset = new int[maxPieces][maxPieces];
+        int next = 0;
+        for(int b = 1; b < maxPieces; b++) {
+            for(int w = 1; b + w <= maxPieces; w++) {
+                offset[b][w] = next;
+                next += groupSize(b, w);
+            }
+        }
+        return offset;
+    }
+
+    /** Return the number of positions with up to maxPieces pieces, at least one of each color. */
+    private static long positions(int maxPieces) {
+        long count = 0;
+        for(int b = 1; b < maxPieces; b++)
+            for(int w = 1; b + w <= maxPieces; w++)
+                count += groupSize(b, w);
+        return count;
+    }
+
+    /**
+     * Solve every position with up to maxPieces pieces and write the tables to a file.
+     * @param maxPieces the most pieces on the board.
+     * @param file the file to write.
+     * @throws IOException if the file cannot be written.
+     */
+    public static void generate(int maxPieces, File file) throws IOException {
+        new Generator(maxPieces).run(file);
+    }
+
+    /**
+     * Solves positions one by one, each after its successors, with make/unmake on a single position.
+     */
+    private static class Generator {
+        private final int maxPieces;
+        private final int[][] offset;
+        private final byte[] distances;
+        private final Bitboard pos = new Bitboard();
+        private final int[][] moves = new int[SearchEngine.MAX_PLY][MoveGenerator.MAX_MOVES];
+
+        Generator(int maxPieces) {
+            this.maxPieces = maxPieces;
+            this.offset = offsets(maxPieces);
+            this.distances = new byte[(int)positions(maxPieces)];
+            java.util.Arrays.fill(distances, (byte)UNSOLVED);
+        }
+
+        void run(File file) throws IOException {
+            long start = System.currentTimeMillis();
+            for(int b = 1; b < maxPieces; b++) {
+                for(int w = 1; b + w <= maxPieces; w++) {
+                    /* every set of b black squares, then every set of w white squares among the rest */
+                    for(long blacks = (1L << b) - 1; blacks < 1L << Bitboard.SQUARES; blacks = nextSet(blacks)) {
+                        long free = ~blacks & Bitboard.ALL_SQUARES;
+                        for(long picks = (1L << w) - 1; picks < 1L << (Bitboard.SQUARES - b); picks = nextSet(picks)) {
+                            pos.pieces[Bitboard.BLACK] = blacks;
+                            pos.pieces[Bitboard.WHITE] = deposit(picks, free);
+                            for(int side = 0; side < 2; side++) {
+                                pos.side = side;
+                                solve(0);
+                            }
+                        }
+                    }
+                    System.out.println(String.format("%d black, %d white: %d positions solved, %d ms",
+                            b, w, groupSize(b, w), System.currentTimeMillis() - start));
+                }
+            }
+
+            DataOutputStream out = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(file)));
+            try {
+                out.writeInt(MAGIC);
+                out.writeInt(VERSION);
+                out.writeInt(maxPieces);
+                out.writeInt(0);
+                out.write(distances);
+            } finally {
+                out.close();
+            }
+        }
+
+        /**
+         * Solve the position and return its distance. Successors are solved first, recursively;
+         * the side to move wins as fast as it can, or else loses as slowly as it can.
+         */
+        private int solve(int ply) {
+            /* the last piece of the side to move was just taken */
+            if(pos.pieces[pos.side] == 0) return 0;
+            int black = Long.bitCount(pos.pieces[Bitboard.BLACK]);
+            int white = Long.bitCount(pos.pieces[Bitboard.WHITE]);
+            int at = offset[black][white] + index(pos, black, white);
+            int known = distances[at] & 0xff;
+            if(known != UNSOLVED) return known;
+
+            int[] buffer = moves[ply];
+            int n = MoveGenerator.generate(pos, buffer);
+            int win = Integer.MAX_VALUE, loss = 0;
+            for(int i = 0; i < n; i++) {
+                pos.make(buffer[i]);
+                int next = solve(ply + 1) + 1;
+                pos.unmake(buffer[i]);
+                if(isWin(next)) win = Math.min(win, next);
+                else loss = Math.max(loss, next);
+            }
+            int distance = win != Integer.MAX_VALUE ? win : loss;
+            if(distance >= UNSOLVED) throw new IllegalStateException("distance " + distance + " does not fit in a byte");
+            distances[at] = (byte)distance;
+            return distance;
+        }
+
+        /** Return the next larger set with as many squares (Gosper's hack). */
+        private static long nextSet(long set) {
+            long lowest = set & -set;
+            long ripple = set + lowest;
+            return ripple | ((set ^ ripple) >>> 2) / lowest;
+        }
+
+        /** Spread the low bits of picks over the squares of free, lowest first. */
+        private static long deposit(long picks, long free) {
+            long result = 0;
+            for(long bits = free; picks != 0 && bits != 0; bits &= bits - 1, picks >>>= 1)
+                if((picks & 1) != 0) result |= bits & -bits;
+            return result;
+        }
+    }
+
+    public static void main(String[] args) throws IOException {
+        int pieces = 6;
+        String out = DEFAULT_FILE;
+        try {
+            for(int i = 0; i < args.length; i++) {
+                if(args[i].equals("-pieces")) pieces = Integer.parseInt(args[++i]);
+                else if(args[i].equals("-out")) out = args[++i];
+                else throw new IllegalArgumentException("unknown option " + args[i]);
+            }
+            if(pieces < 2 || pieces > 10) throw new IllegalArgumentException("-pieces must be from 2 to 10");
+        } catch (RuntimeException e) {
+            System.err.println(e.getMessage());
+            System.err.println("usage: java checkers.Tablebase [-pieces N] [-out FILE]");
+            System.exit(1);
+        }
+        generate(pieces, new File(out));
+        System.out.println("tablebase of up to " + pieces + " pieces written to " + out);
+    }
+}
@@ -0,0 +1,123 @@
+package checkers;
+
+/**
+ * A fixed-size hash table of search results, indexed by the Zobrist hash of a position.
+ * The number of entries is a power of two so that an index is just the low bits of the hash.
+ * Each entry is two longs: the full hash, to tell positions sharing a slot apart, and a packed
+ * record of the best move (bits 0-27), the searched depth (bits 28-34), the bound type (bits 35-36),
+ * the search generation (bits 37-44) and the score (bits 45-60, signed).
+ *
+ * Replacement policy: a new result replaces the slot unless the slot holds a different position
+ * searched deeper during the current search. Results of earlier searches are always replaced.
+ *
+ * The table can be shared by several search threads without locking: the key is stored xor-ed
+ * with the entry, so an entry torn by two threads writing the slot at once no longer matches its
+ * key and simply reads as a miss.
+ */
+public class TranspositionTable {
+    /** the score is exact. */
+    public static final int EXACT = 1;
+    /** the score is a lower bound, the search failed high. */
+    public static final int LOWER = 2;
+    /** the score is an upper bound, the search failed low. */
+    public static final int UPPER = 3;
+
+    private static final int ENTRY_BYTES = 16;
+
+    private long[] keys;
+    private long[] data;
+    private int mask;
+    private int generation = 0;
+
+    /**
+     * Counters of table lookups. Each search thread keeps its own, so that counting needs no synchronization.
+     * collisions -- lookups that found the slot taken by another position, a subset of misses.
+     */
+    public static class Stats {
+        public long hits;
+        public long misses;
+        public long collisions;
+        public void reset() { hits = 0; misses = 0; collisions = 0; }
+        public void add(Stats other) { hits += other.hits; misses += other.misses; collisions += other.collisions; }
+    }
+
+    /**
+     * Construct a table using at most the given amount of memory.
+     * @param megabytes the size of the table in MB.
+     */
+    public TranspositionTable(int megabytes) {
+        resize(megabytes);
+    }
+
+    /**
+     * Reallocate the table using at most the given amount of memory, dropping all entries.
+     * @param megabytes the size of the table in MB.
+     */
+    public void resize(int megabytes) {
+        long bytes = Math.max(1, megabytes) * 1024L * 1024L;
+        int entries = Integer.highestOneBit((int)Math.min(bytes / ENTRY_BYTES, 1 << 30));
+        keys = new long[entries];
+        data = new long[entries];
+        mask = entries - 1;
+    }
+
+    /** Drop all entries. */
+    public void clear() {
+        java.util.Arrays.fill(keys, 0);
+        java.util.Arrays.fill(data, 0);
+    }
+
+    /** Start a new search: age the entries stored so far. */
+    public void newSearch() {
+        generation = (generation + 1) & 0xff;
+    }
+
+    public int size() { return keys.length; }
+
+    /**
+     * Look up a position.
+     * @param key the Zobrist hash of the position.
+     * @param stats the counters to record the lookup in.
+     * @return the packed entry of the position, or 0 if it is not in the table.
+     */
+    public long probe(long key, Stats stats) {
+        int i = (int)key & mask;
+        long entry = data[i];
+        if(entry != 0 && (keys[i] ^ entry) == key) {
+            stats.hits++;
+            return entry;
+        }
+        stats.misses++;
+        if(entry != 0) stats.collisions++;
+        return 0;
+    }
+
+    /**
+     * Store the result of searching a position, subject to the replacement policy.
+     * @param key the Zobrist hash of the position.
+     * @param depth the depth the position was searched to.
+     * @param bound EXACT, LOWER or UPPER.
+     * @param score the score found by the search.
+     * @param move the best move found, 0 if there is none.
+     */
+    public void store(long key, int depth, int bound, int score, int move) {
+        int i = (int)key & mask;
+        long old = data[i];
+        if(old != 0 && (keys[i] ^ old) != key && generation(old) == generation && depth(old) > depth)
+            return;
+        long entry = (move & 0xfffffffL)
+                | (long)Math.min(depth, 0x7f) << 28
+                | (long)bound << 35
+                | (long)generation << 37
+                | (long)(score & 0xffff) << 45;
+        keys[i] = key ^ entry;
+        data[i] = entry;
+    }
+
+    /* entry decoding */
+    public static int move(long entry) { return (int)(entry & 0xfffffff); }
+    public static int depth(long entry) { return (int)(entry >>> 28 & 0x7f); }
+    public static int bound(long entry) { return (int)(entry >>> 35 & 0x3); }
+    public static int score(long entry) { return (short)(entry >>> 45); }
+    private static int generation(long entry) { return (int)(entry >>> 37 & 0xff); }
+}
@@ -0,0 +1,52 @@
+package checkers;
+
+import static org.junit.Assert.assertEquals;
+
+import java.util.Random;
+import org.junit.Test;
+
+/**
+ * Checks the move generator by perft: the leaf counts of the game tree must match the known count
+ * from the initial position and those of the reference generator, which shares no code with it.
+ */
+public class PerftTest {
+    private static final Bitboard START = new Bitboard(CheckersGame.initCBS, CheckerStatus.BLACK);
+
+    @Test
+    public void initialPositionMatchesKnownCount() {
+        assertEquals(41025, Perft.perft(START, 8));
+    }
+
+    @Test
+    public void initialPositionMatchesReference() {
+        for(int depth = 1; depth <= 8; depth++)
+            assertEquals("depth " + depth, Perft.reference(START.toCBStatus(), CheckerStatus.BLACK, depth), Perft.perft(START, depth));
+    }
+
+    @Test
+    public void playedPositionsMatchReference() {
+        Random random = new Random(1);
+        int[] moves = new int[MoveGenerator.MAX_MOVES];
+        for(int game = 0; game < 20; game++) {
+            Bitboard pos = new Bitboard();
+            pos.copyFrom(START);
+            int plies = 2 + random.nextInt(10);
+            for(int ply = 0; ply < plies; ply++) {
+                int n = MoveGenerator.generate(pos, moves);
+                if(n == 0) break;
+                pos.make(moves[random.nextInt(n)]);
+            }
+            assertEquals(pos.toNotation(), Perft.reference(pos.toCBStatus(), Bitboard.statusOf(pos.side), 6), Perft.perft(pos, 6));
+        }
+    }
+
+    @Test
+    public void threadsAndDivideAgreeWithSerialCount() throws InterruptedException {
+        long serial = Perft.perft(START, 8);
+        assertEquals(serial, Perft.perft(START, 8, 3));
+        long total = 0;
+        for(long count : Perft.divide(START, 8, 2))
+            total += count;
+        assertEquals(serial, total);
+    }
+}
@@ -0,0 +1,111 @@
+package checkers;
+
+import static org.junit.Assert.assertEquals;
+
+import java.io.File;
+import java.util.Random;
+import org.junit.BeforeClass;
+import org.junit.ClassRule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+/**
+ * Checks the tablebase of small material against exhaustive search: its distances against a plain
+ * recursive solver, and its wins and losses against SearchEngine searching to the end of the game.
+ */
+public class TablebaseTest {
+    private static final int PIECES = 4;
+
+    @ClassRule
+    public static final TemporaryFolder folder = new TemporaryFolder();
+
+    private static Tablebase tablebase;
+    private final int[][] moves = new int[SearchEngine.MAX_PLY][MoveGenerator.MAX_MOVES];
+
+    @BeforeClass
+    public static void generate() throws Exception {
+        File file = folder.newFile("tablebase.bin");
+        Tablebase.generate(PIECES, file);
+        tablebase = Tablebase.open(file);
+    }
+
+    @Test
+    public void everyPositionOfThreePiecesMatchesSolver() {
+        for(int black = 1; black < 3; black++) {
+            int white = 3 - black;
+            for(long blacks = 0; blacks < 1L << Bitboard.SQUARES; blacks++) {
+                if(Long.bitCount(blacks) != black) continue;
+                for(long whites = 0; whites < 1L << Bitboard.SQUARES; whites++) {
+                    if(Long.bitCount(whites) != white || (blacks & whites) != 0) continue;
+                    for(int side = 0; side < 2; side++) {
+                        Bitboard pos = position(blacks, whites, side);
+                        assertEquals(pos.toNotation(), distance(pos, 0), tablebase.probe(pos));
+                    }
+                }
+            }
+        }
+    }
+
+    @Test
+    public void positionsOfFourPiecesMatchSolver() {
+        Random random = new Random(1);
+        for(int i = 0; i < 2000; i++) {
+            Bitboard pos = randomPosition(random);
+            assertEquals(pos.toNotation(), distance(pos, 0), tablebase.probe(pos));
+        }
+    }
+
+    @Test
+    public void searchAgreesOnWinsAndLosses() {
+        SearchEngine engine = new SearchEngine(new SearchConfig(1, 4));
+        Random random = new Random(2);
+        for(int i = 0; i < 300; i++) {
+            Bitboard pos = randomPosition(random);
+            int distance = tablebase.probe(pos);
+            Agent.SearchResult result = engine.search(pos, pos.side, new SearchLimits(distance + 1, 0));
+            assertEquals(pos.toNotation(), Tablebase.isWin(distance) ? 1000 : -1000, result.value);
+        }
+        engine.shutdown();
+    }
+
+    /** Return a position of PIECES pieces, at least one of each color, on distinct squares. */
+    private static Bitboard randomPosition(Random random) {
+        long blacks = 0, whites = 0;
+        int black = 1 + random.nextInt(PIECES - 1);
+        while(Long.bitCount(blacks | whites) < PIECES) {
+            long square = 1L << random.nextInt(Bitboard.SQUARES);
+            if(((blacks | whites) & square) != 0) continue;
+            if(Long.bitCount(blacks) < black) blacks |= square;
+            else whites |= square;
+        }
+        return position(blacks, whites, random.nextInt(2));
+    }
+
+    private static Bitboard position(long blacks, long whites, int side) {
+        Bitboard pos = new Bitboard();
+        pos.pieces[Bitboard.BLACK] = blacks;
+        pos.pieces[Bitboard.WHITE] = whites;
+        pos.side = side;
+        pos.hash = pos.computeHash();
+        return pos;
+    }
+
+    /**
+     * Return the number of plies to the end of the game under best play, searching every line:
+     * the side to move wins as fast as it can, or else loses as slowly as it can.
+     */
+    private int distance(Bitboard pos, int ply) {
+        if(pos.pieces[pos.side] == 0) return 0;
+        int n = MoveGenerator.generate(pos, moves[ply]);
+        int win = Integer.MAX_VALUE, loss = 0;
+        for(int i = 0; i < n; i++) {
+            int move = moves[ply][i];
+            pos.make(move);
+            int next = distance(pos, ply + 1) + 1;
+            pos.unmake(move);
+            if(Tablebase.isWin(next)) win = Math.min(win, next);
+            else loss = Math.max(loss, next);
+        }
+        return win != Integer.MAX_VALUE ? win : loss;
+    }
+}